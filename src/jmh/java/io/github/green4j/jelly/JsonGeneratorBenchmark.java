@@ -0,0 +1,110 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonGeneratorBenchmark {
+    static final String ASCII = "ascii";
+    static final String UTF8 = "utf8";
+    static final String CHAR_ARRAY = "chararray";
+    static final String APPENDABLE = "appendable";
+
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    @Param({ASCII, UTF8, CHAR_ARRAY, APPENDABLE})
+    String writer;
+
+    @Param({"false", "true"})
+    boolean indent;
+
+    @Param({Payloads.NUMBERS, Payloads.DOUBLES, Payloads.STRINGS, Payloads.NESTED, Payloads.WIDE})
+    String payload;
+
+    private JsonGenerator generator;
+    private Runnable clear;
+    private BufferingWriter output;
+
+    @Setup
+    public void setUp() {
+        switch (writer) {
+            case ASCII: {
+                final AsciiByteArrayWriter w = new AsciiByteArrayWriter(INITIAL_SIZE);
+                clear = w::clear;
+                output = w;
+                break;
+            }
+            case UTF8: {
+                final Utf8ByteArrayWriter w = new Utf8ByteArrayWriter(INITIAL_SIZE);
+                clear = w::clear;
+                output = w;
+                break;
+            }
+            case CHAR_ARRAY: {
+                final CharArrayWriter w = new CharArrayWriter(INITIAL_SIZE);
+                clear = w::clear;
+                output = w;
+                break;
+            }
+            case APPENDABLE: {
+                final StringBuilder sb = new StringBuilder(INITIAL_SIZE);
+                clear = () -> sb.setLength(0);
+                output = new AppendableWriter<>(sb);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown writer: " + writer);
+        }
+        generator = new JsonGenerator(output, indent);
+
+        generate(); // let the writer's buffer grow before the measurement
+    }
+
+    @Benchmark
+    public BufferingWriter generate() {
+        clear.run();
+        Payloads.write(payload, generator);
+        generator.eoj();
+        return output;
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParserBenchmark {
+    static final String COPYING = "copying";
+    static final String FLYWEIGHT = "flyweight";
+    static final String HYBRID = "hybrid";
+
+    @Param({COPYING, FLYWEIGHT, HYBRID})
+    String builder;
+
+    @Param({Payloads.NUMBERS, Payloads.DOUBLES, Payloads.STRINGS, Payloads.NESTED, Payloads.WIDE})
+    String payload;
+
+    private final Checksum checksum = new Checksum();
+    private final JsonEventTape tape = new JsonEventTape();
+
+    private JsonParser parser;
+    private JsonParser extractingParser;
+    private JsonPullParser pullParser;
+    private String chars;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        final JsonStringBuilder stringBuilder;
+        switch (builder) {
+            case COPYING:
+                stringBuilder = new CopyingStringBuilder();
+                break;
+            case FLYWEIGHT:
+                stringBuilder = new FlyweightStringBuilder();
+                break;
+            case HYBRID:
+                stringBuilder = new HybridStringBuilder();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown string builder: " + builder);
+        }
+        parser = new JsonParser(stringBuilder).setListener(checksum);
+
+        // a single value of every document is extracted, the rest is skipped
+        extractingParser = new JsonParser(stringBuilder);
+        extractingParser.setListener(
+                new JsonPathExtractor(checksum, "$[0][0]", "$[0].id", "$.level", "$.member0")
+                        .setParser(extractingParser));
+        pullParser = new JsonPullParser(stringBuilder);
+        chars = Payloads.json(payload);
+        bytes = chars.getBytes(StandardCharsets.UTF_8);
+
+        new JsonParser(stringBuilder).setListener(tape).parseAndEoj(chars); // parsed once, replayed many times
+    }
+
+    @Benchmark
+    public long parseChars() {
+        checksum.value = 0;
+        parser.parseAndEoj(chars);
+        return checksum.value;
+    }
+
+    @Benchmark
+    public long parseBytes() {
+        checksum.value = 0;
+        parser.parseAndEoj(bytes);
+        return checksum.value;
+    }
+
+    @Benchmark
+    public long parseBytesIndexed() {
+        checksum.value = 0;
+        parser.parseIndexed(bytes, 0, bytes.length);
+        parser.eoj();
+        return checksum.value;
+    }
+
+    @Benchmark
+    public long extractChars() {
+        checksum.value = 0;
+        extractingParser.parseAndEoj(chars);
+        return checksum.value;
+    }
+
+    @Benchmark
+    public long replayTape() {
+        checksum.value = 0;
+        tape.replay(checksum);
+        return checksum.value;
+    }
+
+    @Benchmark
+    public long pullChars() {
+        final JsonPullParser p = pullParser;
+        long value = 0;
+        p.feed(chars).endOfInput();
+        for (int token = p.nextToken(); token != JsonPullParser.END_OF_JSON; token = p.nextToken()) {
+            switch (token) {
+                case JsonPullParser.MEMBER_NAME:
+                case JsonPullParser.STRING:
+                    value += p.currentString().length();
+                    break;
+                case JsonPullParser.NUMBER:
+                    value += p.currentNumber().mantissa() + p.currentNumber().exp();
+                    break;
+                case JsonPullParser.TRUE:
+                    value++;
+                    break;
+                case JsonPullParser.ERROR:
+                    throw new IllegalStateException(p.getError() + " at " + p.getErrorPosition());
+                default:
+                    break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Touches every value, so that nothing can be eliminated by the JIT.
+     */
+    static final class Checksum extends JsonParserListenerAdapter implements JsonPathListener {
+        long value;
+
+        @Override
+        public boolean onStringValue(final int path, final CharSequence data) {
+            return onStringValue(data);
+        }
+
+        @Override
+        public boolean onNumberValue(final int path, final long mantissa, final int exp) {
+            value += mantissa + exp;
+            return true;
+        }
+
+        @Override
+        public boolean onObjectMember(final CharSequence name) {
+            value += name.length();
+            return true;
+        }
+
+        @Override
+        public boolean onStringValue(final CharSequence data) {
+            value += data.length();
+            return true;
+        }
+
+        @Override
+        public boolean onNumberValue(final JsonNumber number) {
+            value += number.mantissa() + number.exp();
+            return true;
+        }
+
+        @Override
+        public boolean onTrueValue() {
+            value++;
+            return true;
+        }
+
+        @Override
+        public void onError(final String error, final int position) {
+            throw new IllegalStateException(error + " at " + position);
+        }
+    }
+}
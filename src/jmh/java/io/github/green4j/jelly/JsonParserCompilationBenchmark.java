@@ -0,0 +1,81 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parsing with the default JIT options, when the methods larger than
+ * the HugeMethodLimit (8000 bytes) aren't compiled at all, with the parsing when
+ * such methods are compiled. The same times show the parsing core isn't a huge method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonParserCompilationBenchmark {
+    @Param({Payloads.NUMBERS, Payloads.STRINGS, Payloads.NESTED})
+    String payload;
+
+    private final JsonParserBenchmark.Checksum checksum = new JsonParserBenchmark.Checksum();
+
+    private JsonParser parser;
+    private String chars;
+
+    @Setup
+    public void setUp() {
+        parser = new JsonParser(new FlyweightStringBuilder()).setListener(checksum);
+        chars = Payloads.json(payload);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-XX:+DontCompileHugeMethods")
+    public long defaultJit() {
+        checksum.value = 0;
+        parser.parseAndEoj(chars);
+        return checksum.value;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-XX:-DontCompileHugeMethods")
+    public long hugeMethodsCompiled() {
+        checksum.value = 0;
+        parser.parseAndEoj(chars);
+        return checksum.value;
+    }
+}
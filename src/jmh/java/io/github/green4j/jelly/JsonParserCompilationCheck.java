@@ -0,0 +1,54 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * Warms the parser up with all the payloads, so that the compilation of the parsing core
+ * can be checked with -XX:+PrintCompilation. Run by the jitCheck task of the build.
+ */
+public final class JsonParserCompilationCheck {
+    private static final int ITERATIONS = 5_000;
+
+    private JsonParserCompilationCheck() {
+    }
+
+    public static void main(final String[] args) {
+        final String[] payloads = {
+            Payloads.NUMBERS, Payloads.DOUBLES, Payloads.STRINGS, Payloads.NESTED, Payloads.WIDE
+        };
+        final String[] jsons = new String[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            jsons[i] = Payloads.json(payloads[i]);
+        }
+        final JsonParserBenchmark.Checksum checksum = new JsonParserBenchmark.Checksum();
+        final JsonParser parser = new JsonParser(new FlyweightStringBuilder()).setListener(checksum);
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (final String json : jsons) {
+                parser.parseAndEoj(json);
+            }
+        }
+        System.out.println("Checksum: " + checksum.value);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonReformatterBenchmark {
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    /**
+     * false to minify a pretty-printed document, true to pretty-print a minified one.
+     */
+    @Param({"false", "true"})
+    boolean indent;
+
+    @Param({Payloads.NUMBERS, Payloads.STRINGS, Payloads.NESTED, Payloads.WIDE})
+    String payload;
+
+    private final Utf8ByteArrayWriter output = new Utf8ByteArrayWriter(INITIAL_SIZE);
+
+    private JsonReformatter reformatter;
+    private JsonParser pumpingParser;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder json = new StringBuilder();
+        final JsonGenerator generator = new JsonGenerator(json, !indent);
+        Payloads.write(payload, generator);
+        generator.eoj();
+        bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        reformatter = new JsonReformatter(output, indent);
+        pumpingParser = new JsonParser().setListener(new JsonEventPump(new JsonGenerator(output, indent)));
+    }
+
+    @Benchmark
+    public Utf8ByteArrayWriter reformat() {
+        output.clear();
+        reformatter.reformat(bytes, 0, bytes.length);
+        reformatter.eoj();
+        return output;
+    }
+
+    @Benchmark
+    public Utf8ByteArrayWriter pump() {
+        output.clear();
+        pumpingParser.parseAndEoj(bytes);
+        return output;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * JSON documents of different shapes used by the benchmarks.
+ * Every document is written with a {@link JsonGenerator}, so the same shapes
+ * can be both parsed and generated.
+ */
+final class Payloads {
+    static final String NUMBERS = "numbers";
+    static final String DOUBLES = "doubles";
+    static final String STRINGS = "strings";
+    static final String NESTED = "nested";
+    static final String WIDE = "wide";
+
+    private static final int NUMBERS_ROWS = 100;
+    private static final int DOUBLES_ROWS = 100;
+    private static final int STRINGS_ROWS = 50;
+    private static final int NESTED_DEPTH = 50;
+    private static final int WIDE_MEMBERS = 200;
+
+    private static final String[] WORDS = {
+            "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit",
+            "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et"
+    };
+
+    private static final String[] MEMBER_NAMES = new String[WIDE_MEMBERS];
+    private static final String[] IDS = new String[STRINGS_ROWS];
+    private static final String[] TITLES = new String[STRINGS_ROWS];
+    private static final String[] TEXTS = new String[STRINGS_ROWS];
+
+    static {
+        for (int i = 0; i < MEMBER_NAMES.length; i++) {
+            MEMBER_NAMES[i] = "member" + i;
+        }
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < STRINGS_ROWS; i++) {
+            IDS[i] = "id-" + i;
+            TITLES[i] = WORDS[i % WORDS.length] + ' ' + WORDS[(i + 1) % WORDS.length];
+            text.setLength(0);
+            for (int j = 0; j < 12; j++) {
+                text.append(WORDS[(i + j) % WORDS.length]).append(' ');
+            }
+            text.append("\"quoted\"\tand\\escaped\n");
+            TEXTS[i] = text.toString();
+        }
+    }
+
+    private Payloads() {
+    }
+
+    static String json(final String shape) {
+        final StringBuilder result = new StringBuilder();
+        final JsonGenerator generator = new JsonGenerator(result, false);
+        write(shape, generator);
+        generator.eoj();
+        return result.toString();
+    }
+
+    static void write(final String shape, final JsonGenerator generator) {
+        switch (shape) {
+            case NUMBERS:
+                writeNumbers(generator);
+                break;
+            case DOUBLES:
+                writeDoubles(generator);
+                break;
+            case STRINGS:
+                writeStrings(generator);
+                break;
+            case NESTED:
+                writeNested(generator);
+                break;
+            case WIDE:
+                writeWide(generator);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown payload shape: " + shape);
+        }
+    }
+
+    /**
+     * An array of rows of integer and decimal numbers, like a time series.
+     */
+    private static void writeNumbers(final JsonGenerator generator) {
+        generator.startArray();
+        for (int i = 0; i < NUMBERS_ROWS; i++) {
+            generator.startArray();
+            generator.numberValue(1_600_000_000_000L + i * 1000L);
+            generator.numberValue(10_000 + i * 17, -2);
+            generator.numberValue(-i * 31);
+            generator.numberValue(123_456_789L * i, -6);
+            generator.numberValue(i);
+            generator.endArray();
+        }
+        generator.endArray();
+    }
+
+    /**
+     * An array of rows of doubles, like prices computed in floating point.
+     */
+    private static void writeDoubles(final JsonGenerator generator) {
+        generator.startArray();
+        for (int i = 0; i < DOUBLES_ROWS; i++) {
+            generator.startArray();
+            generator.numberValue(100.0 + i * 0.01);
+            generator.numberValue(Math.PI * i);
+            generator.numberValue(1.0 / (i + 3));
+            generator.numberValue(i * 1.0e-9);
+            generator.numberValue((float) (i * 0.1));
+            generator.endArray();
+        }
+        generator.endArray();
+    }
+
+    /**
+     * An array of text records with some characters to be escaped.
+     */
+    private static void writeStrings(final JsonGenerator generator) {
+        generator.startArray();
+        for (int i = 0; i < STRINGS_ROWS; i++) {
+            generator.startObject();
+            generator.objectMember("id");
+            generator.stringValue(IDS[i]);
+            generator.objectMember("title");
+            generator.stringValue(TITLES[i]);
+            generator.objectMember("text");
+            generator.stringValue(TEXTS[i], true);
+            generator.endObject();
+        }
+        generator.endArray();
+    }
+
+    /**
+     * Deeply nested objects and arrays.
+     */
+    private static void writeNested(final JsonGenerator generator) {
+        for (int i = 0; i < NESTED_DEPTH; i++) {
+            generator.startObject();
+            generator.objectMember("level");
+            generator.numberValue(i);
+            generator.objectMember("flag");
+            if ((i & 1) == 0) {
+                generator.trueValue();
+            } else {
+                generator.falseValue();
+            }
+            generator.objectMember("children");
+            generator.startArray();
+        }
+        generator.nullValue();
+        for (int i = 0; i < NESTED_DEPTH; i++) {
+            generator.endArray();
+            generator.endObject();
+        }
+    }
+
+    /**
+     * A single object with a lot of members of different types.
+     */
+    private static void writeWide(final JsonGenerator generator) {
+        generator.startObject();
+        for (int i = 0; i < MEMBER_NAMES.length; i++) {
+            generator.objectMember(MEMBER_NAMES[i]);
+            switch (i & 3) {
+                case 0:
+                    generator.numberValue(i * 7);
+                    break;
+                case 1:
+                    generator.stringValue(WORDS[i % WORDS.length]);
+                    break;
+                case 2:
+                    generator.trueValue();
+                    break;
+                default:
+                    generator.nullValue();
+                    break;
+            }
+        }
+        generator.endObject();
+    }
+}
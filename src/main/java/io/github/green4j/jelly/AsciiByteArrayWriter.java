@@ -174,7 +174,19 @@ public final class AsciiByteArrayWriter implements ClearableByteArrayBufferingWr
 
     @Override
     public void append(final CharSequence data, final int start, final int len) {
-        for (int i = 0; i < len; i++) {
+        assert array != null;
+
+        makeSureRoomSize(len); // enough for ASCII chars, a non-ASCII one checks the room itself
+        final int copied;
+        if (data instanceof String) {
+            copied = appendAscii((String) data, start, len);
+        } else if (data instanceof CharArray) {
+            final CharArray chars = (CharArray) data;
+            copied = appendAscii(chars.array(), chars.start() + start, len);
+        } else {
+            copied = appendAscii(data, start, len);
+        }
+        for (int i = copied; i < len; i++) {
             append(data.charAt(start + i));
         }
     }
@@ -183,6 +195,59 @@ public final class AsciiByteArrayWriter implements ClearableByteArrayBufferingWr
     public void flush() {
     }
 
+    /**
+     * Copies the leading ASCII chars of the data. The room must be ensured by the caller.
+     *
+     * @param data - the data
+     * @param from - index of the first char
+     * @param len - number of the chars
+     * @return number of the chars copied, less than the len if a non-ASCII char met
+     */
+    private int appendAscii(final String data, final int from, final int len) {
+        final byte[] array = this.array;
+        final int to = start + length;
+        int i = 0;
+        for (; i < len; i++) {
+            final char c = data.charAt(from + i);
+            if (c >= 0x80) {
+                break;
+            }
+            array[to + i] = (byte) c;
+        }
+        length += i;
+        return i;
+    }
+
+    private int appendAscii(final char[] data, final int from, final int len) {
+        final byte[] array = this.array;
+        final int to = start + length;
+        int i = 0;
+        for (; i < len; i++) {
+            final char c = data[from + i];
+            if (c >= 0x80) {
+                break;
+            }
+            array[to + i] = (byte) c;
+        }
+        length += i;
+        return i;
+    }
+
+    private int appendAscii(final CharSequence data, final int from, final int len) {
+        final byte[] array = this.array;
+        final int to = start + length;
+        int i = 0;
+        for (; i < len; i++) {
+            final char c = data.charAt(from + i);
+            if (c >= 0x80) {
+                break;
+            }
+            array[to + i] = (byte) c;
+        }
+        length += i;
+        return i;
+    }
+
     private void appendNull() {
         makeSureRoomSize(4);
         int charIndex = start + length;
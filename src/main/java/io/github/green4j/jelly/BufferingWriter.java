@@ -48,6 +48,59 @@ public interface BufferingWriter {
 
     void append(CharSequence data, int start, int len);
 
+    /**
+     * Appends a part of JSON as is, for example a value captured by the parser.
+     * Unlike {@link #append(CharSequence, int, int)}, the bytes of a {@link Utf8CharSequence}
+     * are decoded from UTF-8, so the writers producing UTF-8 can copy them directly.
+     *
+     * @param data - chars of JSON
+     * @param start - index of the first char
+     * @param len - number of the chars
+     */
+    default void appendRaw(CharSequence data, int start, int len) {
+        if (!(data instanceof Utf8CharSequence)) {
+            append(data, start, len);
+            return;
+        }
+        final int end = start + len;
+        int i = start;
+        while (i < end) {
+            final int b = data.charAt(i++);
+            if (b < 0x80) {
+                append((char) b);
+                continue;
+            }
+            final int remaining = (b & 0xe0) == 0xc0 ? 1 : (b & 0xf0) == 0xe0 ? 2 : (b & 0xf8) == 0xf0 ? 3 : 0;
+            if (remaining == 0 || i + remaining > end) { // a malformed or truncated multibyte sequence
+                append('\uFFFD');
+                continue;
+            }
+            int codePoint = b & (0x3f >> remaining);
+            for (int j = 0; j < remaining; j++) {
+                codePoint = codePoint << 6 | data.charAt(i++) & 0x3f;
+            }
+            if (codePoint < 0x10000) {
+                append((char) codePoint);
+            } else {
+                append(Character.highSurrogate(codePoint));
+                append(Character.lowSurrogate(codePoint));
+            }
+        }
+    }
+
+    /**
+     * Appends chars of a string value escaping them as {@link JsonGenerator} does, without the quotes.
+     * The writers encoding the chars, like {@link Utf8ByteArrayWriter}, may escape and encode them
+     * in a single pass.
+     *
+     * @param data - chars of the string value
+     * @param start - index of the first char
+     * @param len - number of the chars
+     */
+    default void appendEscaped(CharSequence data, int start, int len) {
+        JsonGenerator.appendEscaped(this, data, start, len);
+    }
+
     void flush();
 
 }
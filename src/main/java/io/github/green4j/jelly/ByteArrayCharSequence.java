@@ -0,0 +1,94 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Flyweight {@link Utf8CharSequence} over a byte array.
+ */
+public class ByteArrayCharSequence implements
+        Utf8CharSequence,
+        ByteArray {
+    private byte[] array;
+    private int start;
+    private int length;
+
+    public ByteArrayCharSequence() {
+    }
+
+    public ByteArrayCharSequence(final byte[] array) {
+        set(array);
+    }
+
+    public ByteArrayCharSequence(final byte[] array, final int start, final int length) {
+        set(array, start, length);
+    }
+
+    public void set(final byte[] array) {
+        set(array, 0, array.length);
+    }
+
+    public void set(final byte[] array, final int start, final int length) {
+        assert start >= 0 && start + length <= array.length;
+
+        this.array = array;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public byte[] array() {
+        return array;
+    }
+
+    @Override
+    public int start() {
+        return start;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return (char) (array[start + index] & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString() {
+        if (array == null) {
+            return "null";
+        }
+        return new String(array, start, length, StandardCharsets.UTF_8);
+    }
+}
@@ -69,4 +69,9 @@ public class CharArrayCharSequence implements
     public CharSequence subSequence(final int start, final int end) {
         throw new UnsupportedOperationException("Not implemented yet");
     }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
 }
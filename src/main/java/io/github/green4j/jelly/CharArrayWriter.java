@@ -147,8 +147,15 @@ public class CharArrayWriter implements
 
         makeSureRoomSize(len);
         final int startIndex = this.start + length;
-        for (int i = 0; i < len; i++) {
-            array[startIndex + i] = data.charAt(start + i);
+        if (data instanceof String) {
+            ((String) data).getChars(start, start + len, array, startIndex);
+        } else if (data instanceof CharArray) {
+            final CharArray chars = (CharArray) data;
+            System.arraycopy(chars.array(), chars.start() + start, array, startIndex, len);
+        } else {
+            for (int i = 0; i < len; i++) {
+                array[startIndex + i] = data.charAt(start + i);
+            }
         }
         length += len;
     }
@@ -23,13 +23,25 @@
  */
 package io.github.green4j.jelly;
 
+/**
+ * Copies chars of a string value to an internal buffer. If the data parsed is
+ * a {@link Utf8CharSequence}, the bytes are decoded from UTF-8 while copying.
+ * A multibyte sequence may be split between subsequent appends.
+ * Malformed sequences are replaced with U+FFFD.
+ */
 public final class CopyingStringBuilder implements JsonStringBuilder {
 
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
     private final StringBuilder buffer = new StringBuilder();
     private final boolean rawString;
 
     private int escapedUnicodeChar;
 
+    private int utf8CodePoint;
+    private int utf8MinCodePoint;
+    private int utf8RemainingBytes;
+
     public CopyingStringBuilder() {
         this(false);
     }
@@ -51,15 +63,32 @@ public final class CopyingStringBuilder implements JsonStringBuilder {
     @Override
     public void start(final CharSequence data, final int position) {
         buffer.setLength(0);
+        utf8RemainingBytes = 0;
     }
 
     @Override
     public void append(final CharSequence data, final int start, final int len) {
+        if (data instanceof Utf8CharSequence) {
+            appendUtf8(data, start, len);
+            return;
+        }
         buffer.append(data, start, start + len);
     }
 
+    @Override
+    public void end() {
+        if (utf8RemainingBytes > 0) { // a multibyte sequence truncated by the closing quote
+            utf8RemainingBytes = 0;
+            buffer.append(REPLACEMENT_CHAR);
+        }
+    }
+
     @Override
     public void appendEscape() {
+        if (utf8RemainingBytes > 0) { // a truncated multibyte sequence before the escaping
+            utf8RemainingBytes = 0;
+            buffer.append(REPLACEMENT_CHAR);
+        }
         if (rawString) {
             buffer.append('\\');
         }
@@ -442,6 +471,68 @@ public final class CopyingStringBuilder implements JsonStringBuilder {
         return buffer.subSequence(start, end);
     }
 
+    private void appendUtf8(final CharSequence data, final int start, final int len) {
+        final StringBuilder buf = buffer;
+        final int end = start + len;
+
+        int codePoint = utf8CodePoint;
+        int remainingBytes = utf8RemainingBytes;
+
+        int i = start;
+        while (i < end) {
+            final int b = data.charAt(i);
+            if (remainingBytes == 0) {
+                if (b < 0x80) {
+                    buf.append((char) b);
+                } else if ((b & 0xe0) == 0xc0) {
+                    codePoint = b & 0x1f;
+                    utf8MinCodePoint = 0x80;
+                    remainingBytes = 1;
+                } else if ((b & 0xf0) == 0xe0) {
+                    codePoint = b & 0x0f;
+                    utf8MinCodePoint = 0x800;
+                    remainingBytes = 2;
+                } else if ((b & 0xf8) == 0xf0) {
+                    codePoint = b & 0x07;
+                    utf8MinCodePoint = 0x10000;
+                    remainingBytes = 3;
+                } else {
+                    buf.append(REPLACEMENT_CHAR);
+                }
+                i++;
+                continue;
+            }
+            if ((b & 0xc0) != 0x80) { // the sequence is truncated, so, the byte should be decoded again
+                buf.append(REPLACEMENT_CHAR);
+                remainingBytes = 0;
+                continue;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3f);
+            if (--remainingBytes == 0) {
+                appendCodePoint(buf, codePoint, utf8MinCodePoint);
+            }
+            i++;
+        }
+
+        utf8CodePoint = codePoint;
+        utf8RemainingBytes = remainingBytes;
+    }
+
+    private static void appendCodePoint(final StringBuilder buf, final int codePoint, final int minCodePoint) {
+        if (codePoint < minCodePoint // overlong encoding
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)
+                || codePoint > Character.MAX_CODE_POINT) {
+            buf.append(REPLACEMENT_CHAR);
+            return;
+        }
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            buf.append((char) codePoint);
+            return;
+        }
+        buf.append(Character.highSurrogate(codePoint));
+        buf.append(Character.lowSurrogate(codePoint));
+    }
+
     @Override
     public String toString() {
         return buffer.toString();
@@ -0,0 +1,222 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * Presents a string value as a flyweight over the data parsed, like {@link FlyweightStringBuilder},
+ * while the value has no escapes and isn't split between parts of the JSON message. Otherwise,
+ * the chars of the value are copied and unescaped, like {@link CopyingStringBuilder} does,
+ * so the values presented are the same as the ones of {@link CopyingStringBuilder#CopyingStringBuilder()}.
+ * <p>
+ * If the data parsed is a {@link Utf8CharSequence}, a value with non-ASCII bytes is copied
+ * to be decoded from UTF-8.
+ */
+public final class HybridStringBuilder implements JsonStringBuilder {
+
+    private final CopyingStringBuilder copying = new CopyingStringBuilder();
+
+    private boolean flyweight;
+    private CharSequence buffer;
+    private int start;
+    private int len;
+
+    public HybridStringBuilder() {
+    }
+
+    /**
+     * Returns true if the current string value is presented as a flyweight, so the
+     * {@link #buffer()} contains its chars from the {@link #start()}.
+     *
+     * @return true if the value isn't copied
+     */
+    public boolean isFlyweight() {
+        return flyweight;
+    }
+
+    public CharSequence buffer() {
+        return flyweight ? buffer : copying;
+    }
+
+    public int start() {
+        return flyweight ? start : 0;
+    }
+
+    @Override
+    public int length() {
+        return flyweight ? len : copying.length();
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return flyweight ? buffer.charAt(start + index) : copying.charAt(index);
+    }
+
+    @Override
+    public void start(final CharSequence data, final int position) {
+        flyweight = true;
+        buffer = data;
+        start = position + 1;
+        len = 0;
+        copying.start(data, position);
+    }
+
+    @Override
+    public void append(final CharSequence data, final int start, final int len) {
+        if (flyweight) {
+            if (data == buffer && start == this.start + this.len
+                    && (!(data instanceof Utf8CharSequence) || isAscii(data, start, len))) {
+                this.len += len;
+                return;
+            }
+            copy();
+        }
+        copying.append(data, start, len);
+    }
+
+    @Override
+    public void partEnded() {
+        if (flyweight) {
+            copy();
+        }
+    }
+
+    @Override
+    public void end() {
+        if (!flyweight) {
+            copying.end();
+        }
+    }
+
+    @Override
+    public void appendEscape() {
+        if (flyweight) {
+            copy();
+        }
+        copying.appendEscape();
+    }
+
+    @Override
+    public void appendEscapedQuotationMark() {
+        copying.appendEscapedQuotationMark();
+    }
+
+    @Override
+    public void appendEscapedReverseSolidus() {
+        copying.appendEscapedReverseSolidus();
+    }
+
+    @Override
+    public void appendEscapedSolidus() {
+        copying.appendEscapedSolidus();
+    }
+
+    @Override
+    public void appendEscapedBackspace() {
+        copying.appendEscapedBackspace();
+    }
+
+    @Override
+    public void appendEscapedFormfeed() {
+        copying.appendEscapedFormfeed();
+    }
+
+    @Override
+    public void appendEscapedNewLine() {
+        copying.appendEscapedNewLine();
+    }
+
+    @Override
+    public void appendEscapedCarriageReturn() {
+        copying.appendEscapedCarriageReturn();
+    }
+
+    @Override
+    public void appendEscapedHorisontalTab() {
+        copying.appendEscapedHorisontalTab();
+    }
+
+    @Override
+    public void appendEscapedUnicodeU() {
+        copying.appendEscapedUnicodeU();
+    }
+
+    @Override
+    public boolean appendEscapedUnicodeChar1(final char c) {
+        return copying.appendEscapedUnicodeChar1(c);
+    }
+
+    @Override
+    public boolean appendEscapedUnicodeChar2(final char c) {
+        return copying.appendEscapedUnicodeChar2(c);
+    }
+
+    @Override
+    public boolean appendEscapedUnicodeChar3(final char c) {
+        return copying.appendEscapedUnicodeChar3(c);
+    }
+
+    @Override
+    public boolean appendEscapedUnicodeChar4(final char c) {
+        return copying.appendEscapedUnicodeChar4(c);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (flyweight) {
+            if (start < 0 || start > end || end > len) {
+                throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + len);
+            }
+            return new StringBuilder().append(buffer, this.start + start, this.start + end);
+        }
+        return copying.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (!flyweight) {
+            return copying.toString();
+        }
+        if (len == 0) {
+            return "";
+        }
+        return new StringBuilder().append(buffer, start, start + len).toString();
+    }
+
+    private void copy() {
+        flyweight = false;
+        if (len > 0) {
+            copying.append(buffer, start, len);
+        }
+    }
+
+    private static boolean isAscii(final CharSequence data, final int start, final int len) {
+        for (int i = start; i < start + len; i++) {
+            if (data.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
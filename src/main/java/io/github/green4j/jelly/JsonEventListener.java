@@ -29,6 +29,17 @@ public interface JsonEventListener {
 
     boolean onObjectMember(CharSequence name);
 
+    /**
+     * Notifies about an object member, if a {@link MemberNameDictionary} is set to the parser.
+     *
+     * @param name - name of the member
+     * @param id - id of the name in the dictionary or {@link MemberNameDictionary#NOT_FOUND}
+     * @return true to continue the parsing, false to stop
+     */
+    default boolean onObjectMember(CharSequence name, int id) {
+        return onObjectMember(name);
+    }
+
     boolean onObjectEnded();
 
     boolean onArrayStarted();
@@ -43,6 +54,19 @@ public interface JsonEventListener {
         return onNumberValue(number);
     }
 
+    /**
+     * Notifies about a number value, if the conversion of the numbers to double is enabled
+     * with {@link JsonParser#setDoubleNumbers(boolean)}.
+     *
+     * @param number - the number
+     * @param overflow - true if the mantissa of the number overflowed
+     * @param value - the closest double to the number
+     * @return true to continue the parsing, false to stop
+     */
+    default boolean onNumberValue(JsonNumber number, boolean overflow, double value) {
+        return onNumberValue(number, overflow);
+    }
+
     boolean onTrueValue();
 
     boolean onFalseValue();
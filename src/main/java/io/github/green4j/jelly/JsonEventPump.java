@@ -116,6 +116,13 @@ public class JsonEventPump implements JsonParserListener {
         return true;
     }
 
+    @Override
+    public boolean onRawValue(final CharSequence data, final int start, final int len) {
+        pushMemberNameIfRequired();
+        output.rawValue(data, start, len);
+        return true;
+    }
+
     private void pushMemberNameIfRequired() {
         if (memberName.length() == 0) {
             return;
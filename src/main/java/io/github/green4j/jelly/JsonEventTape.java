@@ -0,0 +1,470 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * Records the events of the parser to a reusable tape, so a parsed JSON can be replayed many times
+ * (i.e. for several consumers) without parsing it again. The tape is a listener of the parser:
+ * the events are stored in a {@code long[]} one word per event with the type and a small payload
+ * (the length of a string, the exponent of a number), the mantissas and the member ids take
+ * one more word, and the chars of the strings are copied to a {@code char[]}. The arrays grow
+ * when required and are kept by {@link #clear()}, so nothing is allocated after a warm-up.
+ * <p>
+ * The tape is replayed to any {@link JsonParserListener} with {@link #replay(JsonParserListener)}
+ * or written with a {@link JsonGenerator} with {@link #replay(JsonGenerator)}, which escapes the decoded
+ * strings and member names. The chars and the numbers passed to the listener are flyweights valid until
+ * the callback returns. The numbers are replayed with their 64-bit mantissas, the texts of wide numbers
+ * (see {@link JsonParser#setWideNumbers(boolean)}) aren't recorded.
+ */
+public final class JsonEventTape implements JsonParserListener {
+    private static final int JSON_STARTED = 1;
+    private static final int JSON_ENDED = JSON_STARTED + 1;
+    private static final int ERROR = JSON_ENDED + 1;
+    private static final int OBJECT_STARTED = ERROR + 1;
+    private static final int OBJECT_MEMBER = OBJECT_STARTED + 1;
+    private static final int OBJECT_MEMBER_ID = OBJECT_MEMBER + 1; // the next word is the id
+    private static final int OBJECT_ENDED = OBJECT_MEMBER_ID + 1;
+    private static final int ARRAY_STARTED = OBJECT_ENDED + 1;
+    private static final int ARRAY_ENDED = ARRAY_STARTED + 1;
+    private static final int STRING_VALUE = ARRAY_ENDED + 1;
+    private static final int NUMBER_VALUE = STRING_VALUE + 1; // the next word is the mantissa
+    private static final int DOUBLE_NUMBER_VALUE = NUMBER_VALUE + 1; // the mantissa and the double follow
+    private static final int TRUE_VALUE = DOUBLE_NUMBER_VALUE + 1;
+    private static final int FALSE_VALUE = TRUE_VALUE + 1;
+    private static final int NULL_VALUE = FALSE_VALUE + 1;
+    private static final int RAW_VALUE = NULL_VALUE + 1;
+    private static final int UTF8_RAW_VALUE = RAW_VALUE + 1;
+
+    private static final int TYPE_MASK = 0xff;
+    private static final int OVERFLOW_FLAG = 0x100; // the mantissa of the number overflowed
+
+    private final Chars string = new Chars();
+    private final Utf8Chars utf8String = new Utf8Chars();
+    private final MutableJsonNumber number = new MutableJsonNumber();
+
+    private long[] events;
+    private int size;
+    private char[] chars;
+    private int charsSize;
+    private String[] errors = new String[1];
+    private int errorCount;
+
+    public JsonEventTape() {
+        this(64, 256);
+    }
+
+    /**
+     * Creates a tape.
+     *
+     * @param initialEvents - initial capacity of the events, in words
+     * @param initialChars - initial capacity of the chars
+     */
+    public JsonEventTape(final int initialEvents, final int initialChars) {
+        this.events = new long[Math.max(initialEvents, 4)];
+        this.chars = new char[Math.max(initialChars, 1)];
+    }
+
+    /**
+     * Returns the size of the tape.
+     *
+     * @return number of the words recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the tape, the arrays are kept for the next recording.
+     *
+     * @return this
+     */
+    public JsonEventTape clear() {
+        size = 0;
+        charsSize = 0;
+        errorCount = 0;
+        return this;
+    }
+
+    /**
+     * Replays the events recorded to the listener.
+     *
+     * @param lnr - the listener
+     * @return true if all the events are replayed, false if the replaying is stopped by the listener
+     */
+    public boolean replay(final JsonParserListener lnr) {
+        final long[] e = events;
+        final int n = size;
+        int charPosition = 0;
+        int error = 0;
+        for (int i = 0; i < n; i++) {
+            final long event = e[i];
+            final int payload = (int) (event >> 32);
+            final boolean r;
+            switch ((int) event & TYPE_MASK) {
+                case JSON_STARTED:
+                    lnr.onJsonStarted();
+                    r = true;
+                    break;
+                case JSON_ENDED:
+                    lnr.onJsonEnded();
+                    r = true;
+                    break;
+                case ERROR:
+                    lnr.onError(errors[error++], payload);
+                    r = true;
+                    break;
+                case OBJECT_STARTED:
+                    r = lnr.onObjectStarted();
+                    break;
+                case OBJECT_MEMBER:
+                    r = lnr.onObjectMember(string.set(chars, charPosition, payload));
+                    charPosition += payload;
+                    break;
+                case OBJECT_MEMBER_ID:
+                    r = lnr.onObjectMember(string.set(chars, charPosition, payload), (int) e[++i]);
+                    charPosition += payload;
+                    break;
+                case OBJECT_ENDED:
+                    r = lnr.onObjectEnded();
+                    break;
+                case ARRAY_STARTED:
+                    r = lnr.onArrayStarted();
+                    break;
+                case ARRAY_ENDED:
+                    r = lnr.onArrayEnded();
+                    break;
+                case STRING_VALUE:
+                    r = lnr.onStringValue(string.set(chars, charPosition, payload));
+                    charPosition += payload;
+                    break;
+                case NUMBER_VALUE:
+                    number.set(e[++i], payload);
+                    r = lnr.onNumberValue(number, (event & OVERFLOW_FLAG) != 0);
+                    break;
+                case DOUBLE_NUMBER_VALUE:
+                    number.set(e[++i], payload);
+                    r = lnr.onNumberValue(number, (event & OVERFLOW_FLAG) != 0, Double.longBitsToDouble(e[++i]));
+                    break;
+                case TRUE_VALUE:
+                    r = lnr.onTrueValue();
+                    break;
+                case FALSE_VALUE:
+                    r = lnr.onFalseValue();
+                    break;
+                case NULL_VALUE:
+                    r = lnr.onNullValue();
+                    break;
+                case RAW_VALUE:
+                    r = lnr.onRawValue(string.set(chars, charPosition, payload), 0, payload);
+                    charPosition += payload;
+                    break;
+                case UTF8_RAW_VALUE:
+                    r = lnr.onRawValue(utf8String.set(chars, charPosition, payload), 0, payload);
+                    charPosition += payload;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event: " + event);
+            }
+            if (!r) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the events recorded with the generator. The strings and the member names are escaped.
+     * The errors are ignored, the end of the JSON completes the generator with {@link JsonGenerator#eoj()}.
+     *
+     * @param generator - the generator
+     */
+    public void replay(final JsonGenerator generator) {
+        final long[] e = events;
+        final int n = size;
+        int charPosition = 0;
+        for (int i = 0; i < n; i++) {
+            final long event = e[i];
+            final int payload = (int) (event >> 32);
+            switch ((int) event & TYPE_MASK) {
+                case JSON_STARTED:
+                case ERROR:
+                    break;
+                case JSON_ENDED:
+                    generator.eoj();
+                    break;
+                case OBJECT_STARTED:
+                    generator.startObject();
+                    break;
+                case OBJECT_MEMBER_ID:
+                    i++; // the id isn't required
+                    generator.objectMember(string.set(chars, charPosition, payload), true);
+                    charPosition += payload;
+                    break;
+                case OBJECT_MEMBER:
+                    generator.objectMember(string.set(chars, charPosition, payload), true);
+                    charPosition += payload;
+                    break;
+                case OBJECT_ENDED:
+                    generator.endObject();
+                    break;
+                case ARRAY_STARTED:
+                    generator.startArray();
+                    break;
+                case ARRAY_ENDED:
+                    generator.endArray();
+                    break;
+                case STRING_VALUE:
+                    generator.stringValue(string.set(chars, charPosition, payload), true);
+                    charPosition += payload;
+                    break;
+                case DOUBLE_NUMBER_VALUE:
+                    generator.numberValue(e[++i], payload);
+                    i++; // the double isn't required
+                    break;
+                case NUMBER_VALUE:
+                    generator.numberValue(e[++i], payload);
+                    break;
+                case TRUE_VALUE:
+                    generator.trueValue();
+                    break;
+                case FALSE_VALUE:
+                    generator.falseValue();
+                    break;
+                case NULL_VALUE:
+                    generator.nullValue();
+                    break;
+                case RAW_VALUE:
+                    generator.rawValue(string.set(chars, charPosition, payload), 0, payload);
+                    charPosition += payload;
+                    break;
+                case UTF8_RAW_VALUE:
+                    generator.rawValue(utf8String.set(chars, charPosition, payload), 0, payload);
+                    charPosition += payload;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event: " + event);
+            }
+        }
+    }
+
+    @Override
+    public void onJsonStarted() {
+        add(JSON_STARTED, 0);
+    }
+
+    @Override
+    public void onError(final String error, final int position) {
+        if (errorCount == errors.length) {
+            final String[] newErrors = new String[errorCount << 1];
+            System.arraycopy(errors, 0, newErrors, 0, errorCount);
+            errors = newErrors;
+        }
+        errors[errorCount++] = error;
+        add(ERROR, position);
+    }
+
+    @Override
+    public void onJsonEnded() {
+        add(JSON_ENDED, 0);
+    }
+
+    @Override
+    public boolean onObjectStarted() {
+        add(OBJECT_STARTED, 0);
+        return true;
+    }
+
+    @Override
+    public boolean onObjectMember(final CharSequence name) {
+        add(OBJECT_MEMBER, appendChars(name, 0, name.length()));
+        return true;
+    }
+
+    @Override
+    public boolean onObjectMember(final CharSequence name, final int id) {
+        add(OBJECT_MEMBER_ID, appendChars(name, 0, name.length()));
+        addWord(id);
+        return true;
+    }
+
+    @Override
+    public boolean onObjectEnded() {
+        add(OBJECT_ENDED, 0);
+        return true;
+    }
+
+    @Override
+    public boolean onArrayStarted() {
+        add(ARRAY_STARTED, 0);
+        return true;
+    }
+
+    @Override
+    public boolean onArrayEnded() {
+        add(ARRAY_ENDED, 0);
+        return true;
+    }
+
+    @Override
+    public boolean onStringValue(final CharSequence data) {
+        add(STRING_VALUE, appendChars(data, 0, data.length()));
+        return true;
+    }
+
+    @Override
+    public boolean onNumberValue(final JsonNumber number) {
+        return onNumberValue(number, false);
+    }
+
+    @Override
+    public boolean onNumberValue(final JsonNumber number, final boolean overflow) {
+        add(overflow ? NUMBER_VALUE | OVERFLOW_FLAG : NUMBER_VALUE, number.exp());
+        addWord(number.mantissa());
+        return true;
+    }
+
+    @Override
+    public boolean onNumberValue(final JsonNumber number, final boolean overflow, final double value) {
+        add(overflow ? DOUBLE_NUMBER_VALUE | OVERFLOW_FLAG : DOUBLE_NUMBER_VALUE, number.exp());
+        addWord(number.mantissa());
+        addWord(Double.doubleToRawLongBits(value));
+        return true;
+    }
+
+    @Override
+    public boolean onTrueValue() {
+        add(TRUE_VALUE, 0);
+        return true;
+    }
+
+    @Override
+    public boolean onFalseValue() {
+        add(FALSE_VALUE, 0);
+        return true;
+    }
+
+    @Override
+    public boolean onNullValue() {
+        add(NULL_VALUE, 0);
+        return true;
+    }
+
+    @Override
+    public boolean onRawValue(final CharSequence data, final int start, final int len) {
+        add(data instanceof Utf8CharSequence ? UTF8_RAW_VALUE : RAW_VALUE, appendChars(data, start, len));
+        return true;
+    }
+
+    private void add(final int type, final int payload) {
+        addWord((long) payload << 32 | type);
+    }
+
+    private void addWord(final long word) {
+        if (size == events.length) {
+            final long[] newEvents = new long[size << 1];
+            System.arraycopy(events, 0, newEvents, 0, size);
+            events = newEvents;
+        }
+        events[size++] = word;
+    }
+
+    private int appendChars(final CharSequence data, final int start, final int len) {
+        final int newSize = charsSize + len;
+        if (newSize > chars.length) {
+            final char[] newChars = new char[Math.max(newSize, chars.length << 1)];
+            System.arraycopy(chars, 0, newChars, 0, charsSize);
+            chars = newChars;
+        }
+        final char[] c = chars;
+        if (data instanceof String) {
+            ((String) data).getChars(start, start + len, c, charsSize);
+        } else if (data instanceof CharArray) {
+            final CharArray array = (CharArray) data;
+            System.arraycopy(array.array(), array.start() + start, c, charsSize, len);
+        } else {
+            for (int i = 0; i < len; i++) {
+                c[charsSize + i] = data.charAt(start + i);
+            }
+        }
+        charsSize = newSize;
+        return len;
+    }
+
+    /**
+     * Flyweight over a part of the chars of the tape.
+     */
+    private static class Chars implements CharSequence, CharArray {
+        private char[] array;
+        private int start;
+        private int length;
+
+        Chars set(final char[] array, final int start, final int length) {
+            this.array = array;
+            this.start = start;
+            this.length = length;
+            return this;
+        }
+
+        @Override
+        public char[] array() {
+            return array;
+        }
+
+        @Override
+        public int start() {
+            return start;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return array[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new String(array, this.start + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(array, start, length);
+        }
+    }
+
+    /**
+     * Chars of a raw value captured from UTF-8 encoded bytes, one char per byte.
+     */
+    private static final class Utf8Chars extends Chars implements Utf8CharSequence {
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses UTF-8 encoded JSON files of any size (including the ones larger than 2 GB)
+ * with a {@link JsonParser}. The file is memory-mapped window by window and each window
+ * is fed to the parser with no copying (see {@link JsonParser#parse(java.nio.ByteBuffer)}),
+ * so a value can be split between two windows and a {@link CopyingStringBuilder}
+ * should be used by the parser.
+ * The only memory allocated per window is a MappedByteBuffer returned by
+ * {@link FileChannel#map(FileChannel.MapMode, long, long)}.
+ * If a listener stops the parsing returning false, the parsing is continued.
+ */
+public final class JsonFileParser {
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final JsonParser parser;
+    private final int windowSize;
+
+    private long windowPosition;
+
+    public JsonFileParser(final JsonParser parser) {
+        this(parser, DEFAULT_WINDOW_SIZE);
+    }
+
+    public JsonFileParser(final JsonParser parser, final int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Positive window size expected: " + windowSize);
+        }
+        this.parser = parser;
+        this.windowSize = windowSize;
+    }
+
+    public JsonParser parser() {
+        return parser;
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Returns the file position of the window being parsed. Can be used by a listener
+     * to get absolute file positions of the events.
+     * @return the file position of the current window
+     */
+    public long getWindowPosition() {
+        return windowPosition;
+    }
+
+    public boolean hasError() {
+        return parser.hasError();
+    }
+
+    public String getError() {
+        return parser.getError();
+    }
+
+    /**
+     * Returns the absolute file position of the error.
+     * @return the file position of the error
+     */
+    public long getErrorPosition() {
+        return windowPosition + parser.getErrorPosition();
+    }
+
+    public void parseAndEoj(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            parseAndEoj(channel);
+        }
+    }
+
+    public void parseAndEoj(final FileChannel channel) throws IOException {
+        parse(channel);
+        parser.eoj();
+    }
+
+    /**
+     * Parses the whole content of the channel, but doesn't finish the parsing with
+     * the {@link JsonParser#eoj()}. The parsing stops on the first error.
+     * @param channel - the file to parse
+     * @throws IOException if the file cannot be mapped
+     */
+    public void parse(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+
+        long position = 0;
+        while (position < size) {
+            final long len = Math.min(windowSize, size - position);
+            final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, len);
+
+            windowPosition = position;
+
+            JsonParser.Next next = parser.parse(window);
+            while (next != null) {
+                next = next.next();
+            }
+            if (parser.hasError()) {
+                return;
+            }
+            position += len;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * Options of the pretty-printing of {@link JsonGenerator} and {@link JsonReformatter}.
+ * By default, every level is indented with a single space, and the lines are separated with
+ * the platform line separator.
+ */
+public final class JsonFormat {
+    public static final String PLATFORM_LINE_SEPARATOR = System.getProperty("line.separator", "\n");
+
+    private int indentWidth = 1;
+    private boolean tabs;
+    private String lineSeparator = PLATFORM_LINE_SEPARATOR;
+    private boolean compactScalarArrays;
+
+    public int getIndentWidth() {
+        return indentWidth;
+    }
+
+    /**
+     * Sets the number of spaces every level is indented with.
+     *
+     * @param indentWidth - the number of spaces, 0 or more
+     * @return this
+     */
+    public JsonFormat setIndentWidth(final int indentWidth) {
+        if (indentWidth < 0) {
+            throw new IllegalArgumentException("Negative indent width: " + indentWidth);
+        }
+        this.indentWidth = indentWidth;
+        return this;
+    }
+
+    public boolean isTabs() {
+        return tabs;
+    }
+
+    /**
+     * Enables the indentation with a tab per level instead of the spaces.
+     *
+     * @param tabs - true to indent with tabs
+     * @return this
+     */
+    public JsonFormat setTabs(final boolean tabs) {
+        this.tabs = tabs;
+        return this;
+    }
+
+    public String getLineSeparator() {
+        return lineSeparator;
+    }
+
+    /**
+     * Sets the line separator, for example {@code "\n"} to get the same output on every platform.
+     *
+     * @param lineSeparator - the line separator, not empty
+     * @return this
+     */
+    public JsonFormat setLineSeparator(final String lineSeparator) {
+        if (lineSeparator == null || lineSeparator.isEmpty()) {
+            throw new IllegalArgumentException("Empty line separator");
+        }
+        this.lineSeparator = lineSeparator;
+        return this;
+    }
+
+    public boolean isCompactScalarArrays() {
+        return compactScalarArrays;
+    }
+
+    /**
+     * Enables the compact arrays of scalars. If enabled, the scalar items of an array are written
+     * in a line, like {@code [1, 2, 3]}, until the first object or array item, which starts a new line
+     * as usual.
+     *
+     * @param compactScalarArrays - true to write the scalar items in a line
+     * @return this
+     */
+    public JsonFormat setCompactScalarArrays(final boolean compactScalarArrays) {
+        this.compactScalarArrays = compactScalarArrays;
+        return this;
+    }
+
+    /**
+     * Writes the line separator and the indentation of a depth in bulk into a {@link BufferingWriter.Frame}.
+     *
+     * @param out - the output
+     * @param depth - the depth
+     */
+    void newLine(final BufferingWriter out, final int depth) {
+        final String separator = lineSeparator;
+        final int separatorLength = separator.length();
+        final int length = separatorLength + (tabs ? depth : depth * indentWidth);
+        final BufferingWriter.Frame frame = out.append(length);
+        for (int i = 0; i < separatorLength; i++) {
+            frame.setCharAt(i, separator.charAt(i));
+        }
+        final char c = tabs ? '\t' : ' ';
+        for (int i = separatorLength; i < length; i++) {
+            frame.setCharAt(i, c);
+        }
+    }
+}
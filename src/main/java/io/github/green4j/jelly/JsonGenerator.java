@@ -25,20 +25,18 @@ package io.github.green4j.jelly;
 
 public final class JsonGenerator {
 
-    private static final String NL = System.getProperty("line.separator", "\n");
-    private static final String[] WSS = new String[]{
-            "",
-            " ",
-            "  ",
-            "   ",
-            "    ",
-            "     ",
-            "      ",
-            "       ",
-            "        ",
-            "         ",
-            "          "
-    };
+    /**
+     * NaN and infinite numbers are written as null.
+     */
+    public static final int NON_FINITE_NUMBERS_AS_NULL = 0;
+    /**
+     * NaN and infinite numbers are written as strings "NaN", "Infinity" and "-Infinity".
+     */
+    public static final int NON_FINITE_NUMBERS_AS_STRING = 1;
+    /**
+     * NaN and infinite numbers aren't written, an IllegalArgumentException is thrown.
+     */
+    public static final int NON_FINITE_NUMBERS_AS_ERROR = 2;
 
     private static final char[] DIGIT_TENS = {
             '0', '0', '0', '0', '0', '0', '0', '0', '0', '0',
@@ -67,11 +65,16 @@ public final class JsonGenerator {
     private static final String TRUE = "true";
     private static final String FALSE = "false";
     private static final String NULL = "null";
+    private static final String NEGATIVE_ZERO = "-0.0";
+    private static final String NAN = "NaN";
+    private static final String POSITIVE_INFINITY = "Infinity";
+    private static final String NEGATIVE_INFINITY = "-Infinity";
 
-    private static final String[] UNICODE_ASCII_LOW = new String[0x1F + 1];
+    // the char written after a backslash for an ASCII char to be escaped, 'u' for \\uXXXX, 0 if not escaped
+    static final char[] ESCAPES = new char[0x80];
     // In ECMAScript, \u2028 and \u2029 are line terminators and must be encoded
-    private static final String UNICODE_2028 = "\\u2028"; // line separator <LS>
-    private static final String UNICODE_2029 = "\\u2029"; // paragraph separator <PS>
+    static final char UNICODE_2028 = 0x2028; // line separator <LS>
+    static final char UNICODE_2029 = 0x2029; // paragraph separator <PS>
 
     private static final int STATE_OBJECT_STARTED = 1;
     private static final int STATE_OBJECT_MEMBER_NAME = STATE_OBJECT_STARTED + 1;
@@ -79,6 +82,7 @@ public final class JsonGenerator {
 
     private static final int STATE_ARRAY_STARTED = STATE_OBJECT_MEMBER_VALUE + 1;
     private static final int STATE_ARRAY_ITEM = STATE_ARRAY_STARTED + 1;
+    private static final int STATE_ARRAY_STRUCTURE_ITEM = STATE_ARRAY_ITEM + 1; // an object or array item is written
 
     private static final int MAX_NUMBER_OF_DIGITS = 19;
 
@@ -90,15 +94,24 @@ public final class JsonGenerator {
     static final char[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
 
     static {
-        for (int i = 0; i < 0x10; i++) {
-            UNICODE_ASCII_LOW[i] = "\\u000" + HEX_DIGITS[i];
-        }
-        for (int i = 0x10; i < UNICODE_ASCII_LOW.length; i++) {
-            UNICODE_ASCII_LOW[i] = "\\u00" + HEX_DIGITS[i >>> 4 & 0x000f] + HEX_DIGITS[i & 0x000f];
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = 'u';
         }
+        ESCAPES[0x08] = 'b';
+        ESCAPES[0x09] = 't';
+        ESCAPES[0x0A] = 'n';
+        ESCAPES[0x0C] = 'f';
+        ESCAPES[0x0D] = 'r';
+        ESCAPES['/'] = '/';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['"'] = '"';
     }
 
     private final boolean indent;
+    private final JsonFormat format;
+    private final MutableJsonNumber decimal = new MutableJsonNumber();
+
+    private int nonFiniteNumbers = NON_FINITE_NUMBERS_AS_NULL;
 
     private int[] scopeStack = new int[8];
     private int scopeStackDepth;
@@ -110,7 +123,23 @@ public final class JsonGenerator {
     }
 
     public JsonGenerator(final boolean indent) {
-        this.indent = indent;
+        this(indent ? new JsonFormat() : null);
+    }
+
+    /**
+     * Creates a generator with the pretty-printing options. The options are read
+     * while the generator writes, so they shouldn't be changed in the middle of a JSON.
+     *
+     * @param format - the options or null to write without the indentation
+     */
+    public JsonGenerator(final JsonFormat format) {
+        this.indent = format != null;
+        this.format = format;
+    }
+
+    public JsonGenerator(final BufferingWriter output, final JsonFormat format) {
+        this(format);
+        this.output = output;
     }
 
     public JsonGenerator(final BufferingWriter output) {
@@ -142,20 +171,56 @@ public final class JsonGenerator {
         return indent;
     }
 
+    public JsonFormat getFormat() {
+        return format;
+    }
+
     public JsonGenerator setOutput(final BufferingWriter output) {
         this.output = output;
         return this;
     }
 
+    public int getNonFiniteNumbers() {
+        return nonFiniteNumbers;
+    }
+
+    /**
+     * Sets how NaN and infinite double and float numbers are written.
+     *
+     * @param nonFiniteNumbers - one of {@link #NON_FINITE_NUMBERS_AS_NULL} (default),
+     *                         {@link #NON_FINITE_NUMBERS_AS_STRING}, {@link #NON_FINITE_NUMBERS_AS_ERROR}
+     * @return this
+     */
+    public JsonGenerator setNonFiniteNumbers(final int nonFiniteNumbers) {
+        switch (nonFiniteNumbers) {
+            case NON_FINITE_NUMBERS_AS_NULL:
+            case NON_FINITE_NUMBERS_AS_STRING:
+            case NON_FINITE_NUMBERS_AS_ERROR:
+                break;
+            default:
+                throw new IllegalArgumentException("Unexpected non-finite numbers mode: " + nonFiniteNumbers);
+        }
+        this.nonFiniteNumbers = nonFiniteNumbers;
+        return this;
+    }
+
     public void startObject() {
         writeStructureStarted('{', STATE_OBJECT_STARTED);
     }
 
     public void objectMember(final CharSequence name) {
-        objectMember(name, 0, name.length());
+        objectMember(name, 0, name.length(), false);
+    }
+
+    public void objectMember(final CharSequence name, final boolean escaping) {
+        objectMember(name, 0, name.length(), escaping);
     }
 
     public void objectMember(final CharSequence name, final int start, final int len) {
+        objectMember(name, start, len, false);
+    }
+
+    public void objectMember(final CharSequence name, final int start, final int len, final boolean escaping) {
         final BufferingWriter out = output;
 
         assert out != null;
@@ -174,7 +239,11 @@ public final class JsonGenerator {
         }
 
         out.append('\"');
-        out.append(name, start, start + len);
+        if (escaping) {
+            out.appendEscaped(name, start, len);
+        } else {
+            out.append(name, start, len);
+        }
         out.append("\":");
 
         replaceScope(STATE_OBJECT_MEMBER_NAME);
@@ -246,6 +315,46 @@ public final class JsonGenerator {
         afterValueAdded(scope);
     }
 
+    /**
+     * Writes the shortest decimal, which is parsed back to the same double,
+     * see {@link JsonNumbers#toDecimal(double, MutableJsonNumber)}.
+     *
+     * @param value - the value
+     */
+    public void numberValue(final double value) {
+        if (!Double.isFinite(value)) {
+            writeNonFiniteNumber(value);
+            return;
+        }
+        if (value == 0 && Double.doubleToRawLongBits(value) != 0) {
+            writeStringDirect(NEGATIVE_ZERO);
+            return;
+        }
+        final MutableJsonNumber d = decimal;
+        JsonNumbers.toDecimal(value, d);
+        numberValue(d.mantissa(), d.exp());
+    }
+
+    /**
+     * Writes the shortest decimal, which is parsed back to the same float,
+     * see {@link JsonNumbers#toDecimal(float, MutableJsonNumber)}.
+     *
+     * @param value - the value
+     */
+    public void numberValue(final float value) {
+        if (!Float.isFinite(value)) {
+            writeNonFiniteNumber(value);
+            return;
+        }
+        if (value == 0 && Float.floatToRawIntBits(value) != 0) {
+            writeStringDirect(NEGATIVE_ZERO);
+            return;
+        }
+        final MutableJsonNumber d = decimal;
+        JsonNumbers.toDecimal(value, d);
+        numberValue(d.mantissa(), d.exp());
+    }
+
     public void trueValue() {
         writeStringDirect(TRUE);
     }
@@ -258,12 +367,35 @@ public final class JsonGenerator {
         writeStringDirect(NULL);
     }
 
+    /**
+     * Writes a value as is, without any validation or escaping,
+     * see {@link JsonParser#captureValue()} and {@link BufferingWriter#appendRaw(CharSequence, int, int)}.
+     *
+     * @param value - chars of the value
+     * @param start - index of the first char
+     * @param len - number of the chars
+     */
+    public void rawValue(final CharSequence value, final int start, final int len) {
+        final BufferingWriter out = output;
+
+        assert out != null;
+
+        final int scope = peekScope();
+
+        beforeLiteralAdded(scope, out);
+
+        out.appendRaw(value, start, len);
+
+        afterValueAdded(scope);
+    }
+
     public void eoj() {
         while (scopeStackDepth > 0) {
             final int scope = peekScope();
             switch (scope) {
                 case STATE_ARRAY_STARTED:
                 case STATE_ARRAY_ITEM:
+                case STATE_ARRAY_STRUCTURE_ITEM:
                     endArray();
                     break;
                 case STATE_OBJECT_STARTED:
@@ -295,6 +427,7 @@ public final class JsonGenerator {
         switch (scope) {
             case STATE_OBJECT_MEMBER_VALUE:
             case STATE_ARRAY_ITEM:
+            case STATE_ARRAY_STRUCTURE_ITEM:
                 out.append(',');
                 break;
         }
@@ -313,15 +446,25 @@ public final class JsonGenerator {
 
         assert out != null;
 
-        popScope();
+        final int scope = popScope();
 
-        if (indent) {
+        if (indent && !(format.isCompactScalarArrays()
+                && (scope == STATE_ARRAY_STARTED || scope == STATE_ARRAY_ITEM))) {
             indent(out, true);
         }
 
         out.append(rightBracket);
 
-        afterValueAdded(peekScope());
+        final int parentScope = peekScope();
+        switch (parentScope) {
+            case STATE_ARRAY_STARTED:
+            case STATE_ARRAY_ITEM:
+                replaceScope(STATE_ARRAY_STRUCTURE_ITEM);
+                break;
+            default:
+                afterValueAdded(parentScope);
+                break;
+        }
     }
 
     private void writeStringQuoted(final CharSequence value, final int start, final int len, final boolean escaping) {
@@ -336,50 +479,9 @@ public final class JsonGenerator {
         out.append('\"');
 
         if (escaping) {
-            for (int i = start; i < start + len; i++) {
-                final char c = value.charAt(i);
-                switch (c) {
-                    case 0x08:
-                        out.append("\\b");
-                        break;
-                    case 0x09:
-                        out.append("\\t");
-                        break;
-                    case 0x0A:
-                        out.append("\\n");
-                        break;
-                    case 0x0C:
-                        out.append("\\f");
-                        break;
-                    case 0x0D:
-                        out.append("\\r");
-                        break;
-                    case '/':
-                        out.append("\\/");
-                        break;
-                    case '\\':
-                        out.append("\\\\");
-                        break;
-                    case '"':
-                        out.append("\\\"");
-                        break;
-                    case 0x2028:
-                        out.append(UNICODE_2028);
-                        break;
-                    case 0x2029:
-                        out.append(UNICODE_2029);
-                        break;
-                    default:
-                        if (c < UNICODE_ASCII_LOW.length) {
-                            out.append(UNICODE_ASCII_LOW[c]);
-                            break;
-                        }
-                        out.append(c);
-                        break;
-                }
-            }
+            out.appendEscaped(value, start, len);
         } else {
-            out.append(value, start, start + len);
+            out.append(value, start, len);
         }
 
         out.append("\"");
@@ -387,6 +489,45 @@ public final class JsonGenerator {
         afterValueAdded(scope);
     }
 
+    /**
+     * Writes the runs of the chars not to be escaped in bulk, looking the next char
+     * to be escaped up in the table. The default of {@link BufferingWriter#appendEscaped(CharSequence, int, int)}.
+     */
+    static void appendEscaped(final BufferingWriter out,
+                              final CharSequence value, final int start, final int len) {
+        final char[] escapes = ESCAPES;
+        final int end = start + len;
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c < escapes.length ? escapes[c] == 0 : c != UNICODE_2028 && c != UNICODE_2029) {
+                continue;
+            }
+            if (runStart < i) {
+                out.append(value, runStart, i - runStart);
+            }
+            runStart = i + 1;
+
+            final char escape = c < escapes.length ? escapes[c] : 'u';
+            if (escape != 'u') {
+                final BufferingWriter.Frame frame = out.append(2);
+                frame.setCharAt(0, '\\');
+                frame.setCharAt(1, escape);
+                continue;
+            }
+            final BufferingWriter.Frame frame = out.append(6);
+            frame.setCharAt(0, '\\');
+            frame.setCharAt(1, 'u');
+            frame.setCharAt(2, HEX_DIGITS[c >>> 12 & 0x000f]);
+            frame.setCharAt(3, HEX_DIGITS[c >>> 8 & 0x000f]);
+            frame.setCharAt(4, HEX_DIGITS[c >>> 4 & 0x000f]);
+            frame.setCharAt(5, HEX_DIGITS[c & 0x000f]);
+        }
+        if (runStart < end) {
+            out.append(value, runStart, end - runStart);
+        }
+    }
+
     private void writeStringDirect(final String value) {
         final BufferingWriter out = output;
 
@@ -401,6 +542,21 @@ public final class JsonGenerator {
         afterValueAdded(scope);
     }
 
+    private void writeNonFiniteNumber(final double value) {
+        switch (nonFiniteNumbers) {
+            case NON_FINITE_NUMBERS_AS_STRING: {
+                final String name = Double.isNaN(value) ? NAN : value > 0 ? POSITIVE_INFINITY : NEGATIVE_INFINITY;
+                writeStringQuoted(name, 0, name.length(), false);
+                break;
+            }
+            case NON_FINITE_NUMBERS_AS_ERROR:
+                throw new IllegalArgumentException("Not a finite number: " + value);
+            default:
+                nullValue();
+                break;
+        }
+    }
+
     private void writeNumberQuoted(final long mantissa, final int exp) {
         final BufferingWriter out = output;
 
@@ -426,6 +582,7 @@ public final class JsonGenerator {
     private void beforeLiteralAdded(final int scope, final BufferingWriter out) {
         switch (scope) {
             case STATE_ARRAY_ITEM:
+            case STATE_ARRAY_STRUCTURE_ITEM:
                 out.append(',');
                 break;
         }
@@ -433,7 +590,18 @@ public final class JsonGenerator {
         if (indent) {
             switch (scope) {
                 case STATE_ARRAY_STARTED:
+                    if (!format.isCompactScalarArrays()) {
+                        indent(out, false);
+                    }
+                    break;
                 case STATE_ARRAY_ITEM:
+                    if (format.isCompactScalarArrays()) {
+                        out.append(' ');
+                    } else {
+                        indent(out, false);
+                    }
+                    break;
+                case STATE_ARRAY_STRUCTURE_ITEM:
                     indent(out, false);
                     break;
                 case STATE_OBJECT_MEMBER_NAME:
@@ -456,22 +624,10 @@ public final class JsonGenerator {
 
     private void indent(final BufferingWriter out, final boolean ending) {
         final int depth = scopeStackDepth;
-        if (depth == 0) {
-            if (ending) {
-                out.append(NL);
-            }
+        if (depth == 0 && !ending) {
             return;
         }
-        out.append(NL);
-        final int delta = depth - WSS.length;
-        if (delta > -1) {
-            out.append(WSS[WSS.length - 1]);
-            for (int i = 0; i < delta + 1; i++) {
-                out.append(WSS[1]);
-            }
-        } else {
-            out.append(WSS[depth]);
-        }
+        format.newLine(out, depth);
     }
 
     private void clearScope() {
@@ -587,8 +743,8 @@ public final class JsonGenerator {
         final int numOfDigits;
         if (mts < 0) {
             mantissaSign = '-';
-            mts = -mts;
-            numOfDigits = numberOfDigits(mts);
+            mts = -mts; // stays negative for Long.MIN_VALUE
+            numOfDigits = mts == Long.MIN_VALUE ? MAX_NUMBER_OF_DIGITS : numberOfDigits(mts);
             size = numOfDigits + 1;
         } else {
             numOfDigits = numberOfDigits(mts);
@@ -652,6 +808,15 @@ public final class JsonGenerator {
 
         int remainingNumCount = numOfDigits;
 
+        if (mts == Long.MIN_VALUE) { // 9223372036854775808 doesn't fit, the last digit is written first
+            buf.setCharAt(--currentCharIndex, '8');
+            remainingNumCount--;
+            if (mode == DECIMAL_FORMAT_INSIDE_MANTISSA && remainingNumCount == pointPos) {
+                buf.setCharAt(--currentCharIndex, '.');
+            }
+            mts = -(Long.MIN_VALUE / 10);
+        }
+
         long x;
         int y;
         while (mts > Integer.MAX_VALUE) {
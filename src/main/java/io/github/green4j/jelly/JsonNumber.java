@@ -28,4 +28,13 @@ public interface JsonNumber {
     long mantissa();
 
     int exp();
+
+    /**
+     * Converts the number to the closest double, see {@link JsonNumbers#toDouble(long, int)}.
+     *
+     * @return the closest double
+     */
+    default double doubleValue() {
+        return JsonNumbers.toDouble(mantissa(), exp());
+    }
 }
@@ -0,0 +1,449 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.math.BigInteger;
+
+/**
+ * Conversions of numbers presented by a mantissa and a decimal exponent, like {@link JsonNumber}.
+ */
+public final class JsonNumbers {
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+
+    private static final int MANTISSA_EXPLICIT_BITS = 52;
+    private static final int MINIMUM_EXPONENT = -1023;
+    private static final int INFINITE_POWER = 0x7ff;
+    private static final int MIN_EXPONENT_ROUND_TO_EVEN = -4;
+    private static final int MAX_EXPONENT_ROUND_TO_EVEN = 23;
+    private static final long PRECISION_MASK = 0xffffffffffffffffL >>> (MANTISSA_EXPLICIT_BITS + 3);
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int DOUBLE_P = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << DOUBLE_P - 1;
+    private static final long DOUBLE_C_TINY = 3;
+    private static final int DOUBLE_BQ_MASK = 0x7ff;
+    private static final long DOUBLE_T_MASK = (1L << DOUBLE_P - 1) - 1;
+
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << FLOAT_P - 1;
+    private static final int FLOAT_C_TINY = 8;
+    private static final int FLOAT_BQ_MASK = 0xff;
+    private static final int FLOAT_T_MASK = (1 << FLOAT_P - 1) - 1;
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    /**
+     * 126-bit approximations of the powers of ten from 10^-292 to 10^324 (for k from -324 to 292,
+     * the power is 10^-k), the high 63 bits and the low 63 bits of every power one after another.
+     */
+    private static final long[] POWERS_OF_TEN = powersOfTen();
+
+    /**
+     * 128-bit approximations of the powers of five from 5^-342 to 5^308, the high
+     * and the low 64 bits of every power one after another.
+     */
+    private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+    private JsonNumbers() {
+    }
+
+    /**
+     * Converts mantissa * 10^exp to the closest double, the ties are rounded to even.
+     * The conversion doesn't allocate memory except some very rare cases, which can't be
+     * resolved with 128-bit approximations of the powers of ten (the Eisel-Lemire algorithm).
+     *
+     * @param mantissa - the mantissa
+     * @param exp - the decimal exponent
+     * @return the closest double
+     */
+    public static double toDouble(final long mantissa, final int exp) {
+        if (mantissa == 0) {
+            return 0.0;
+        }
+        final boolean negative = mantissa < 0;
+        final long w = negative ? -mantissa : mantissa; // Long.MIN_VALUE is 2^63 as unsigned
+
+        // both the mantissa and the power of ten are exact doubles, so the only rounding is correct
+        if (w > 0 && w <= MAX_EXACT_MANTISSA && exp >= -22 && exp <= 22) {
+            final double d = exp < 0 ? w / EXACT_POWERS_OF_TEN[-exp] : w * EXACT_POWERS_OF_TEN[exp];
+            return negative ? -d : d;
+        }
+
+        final long bits = toDoubleBits(w, exp);
+        if (bits < 0) {
+            return Double.parseDouble(Long.toUnsignedString(w) + 'E' + exp) * (negative ? -1 : 1);
+        }
+        final double d = Double.longBitsToDouble(bits);
+        return negative ? -d : d;
+    }
+
+    /**
+     * The Eisel-Lemire algorithm.
+     *
+     * @param mantissa - a non-zero unsigned mantissa
+     * @param exp - the decimal exponent
+     * @return bits of the positive double, or -1 if the result can't be computed
+     */
+    private static long toDoubleBits(final long mantissa, final int exp) {
+        if (exp < SMALLEST_POWER_OF_TEN) {
+            return 0;
+        }
+        if (exp > LARGEST_POWER_OF_TEN) {
+            return (long) INFINITE_POWER << MANTISSA_EXPLICIT_BITS;
+        }
+        final int lz = Long.numberOfLeadingZeros(mantissa);
+        final long w = mantissa << lz;
+
+        final int index = (exp - SMALLEST_POWER_OF_TEN) << 1;
+        final long powerHigh = POWERS_OF_FIVE[index];
+        long high = multiplyHighUnsigned(w, powerHigh);
+        long low = w * powerHigh;
+        if ((high & PRECISION_MASK) == PRECISION_MASK) { // the approximation isn't enough, the next 64 bits
+            final long powerLow = POWERS_OF_FIVE[index + 1];
+            final long secondHigh = multiplyHighUnsigned(w, powerLow);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+            if ((high & PRECISION_MASK) == PRECISION_MASK && low == -1L
+                    && (exp < -27 || exp > 55)) {
+                return -1;
+            }
+        }
+
+        final int upperBit = (int) (high >>> 63);
+        final int shift = upperBit + 64 - MANTISSA_EXPLICIT_BITS - 3;
+        long m = high >>> shift;
+        int power2 = power(exp) + upperBit - lz - MINIMUM_EXPONENT;
+
+        if (power2 <= 0) { // subnormal
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+            m >>>= -power2 + 1;
+            m += m & 1;
+            m >>>= 1;
+            power2 = m < (1L << MANTISSA_EXPLICIT_BITS) ? 0 : 1;
+            return (long) power2 << MANTISSA_EXPLICIT_BITS | m & ~(1L << MANTISSA_EXPLICIT_BITS);
+        }
+
+        if (Long.compareUnsigned(low, 1) <= 0
+                && exp >= MIN_EXPONENT_ROUND_TO_EVEN
+                && exp <= MAX_EXPONENT_ROUND_TO_EVEN
+                && (m & 3) == 1) {
+            if ((m << shift) == high) { // exactly in the middle, round to even
+                m &= ~1L;
+            }
+        }
+        m += m & 1;
+        m >>>= 1;
+        if (m >= (2L << MANTISSA_EXPLICIT_BITS)) {
+            m = 1L << MANTISSA_EXPLICIT_BITS;
+            power2++;
+        }
+        m &= ~(1L << MANTISSA_EXPLICIT_BITS);
+        if (power2 >= INFINITE_POWER) {
+            return (long) INFINITE_POWER << MANTISSA_EXPLICIT_BITS;
+        }
+        return (long) power2 << MANTISSA_EXPLICIT_BITS | m;
+    }
+
+    /**
+     * Converts a finite double to the shortest decimal, which is converted back to the same double
+     * (the Schubfach algorithm by Raffaello Giulietti). If there are several shortest decimals,
+     * the closest one to the double is selected. The mantissa of the decimal has no trailing zeros.
+     * The sign of a negative zero is lost.
+     *
+     * @param value - a finite double
+     * @param to - the decimal
+     */
+    public static void toDecimal(final double value, final MutableJsonNumber to) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & DOUBLE_T_MASK;
+        final int bq = (int) (bits >>> DOUBLE_P - 1) & DOUBLE_BQ_MASK;
+        if (bq == DOUBLE_BQ_MASK) {
+            throw new IllegalArgumentException("Not a finite number: " + value);
+        }
+        if (bq != 0) { // a normal value
+            final int mq = -DOUBLE_Q_MIN + 1 - bq;
+            final long c = DOUBLE_C_MIN | t;
+            if (0 < mq && mq < DOUBLE_P) { // maybe an integer
+                final long f = c >> mq;
+                if (f << mq == c) {
+                    setDecimal(to, bits < 0 ? -f : f, 0);
+                    return;
+                }
+            }
+            toDecimal(-mq, c, 0, bits < 0, to);
+        } else if (t != 0) { // a subnormal value
+            if (t < DOUBLE_C_TINY) {
+                toDecimal(DOUBLE_Q_MIN, 10 * t, -1, bits < 0, to);
+            } else {
+                toDecimal(DOUBLE_Q_MIN, t, 0, bits < 0, to);
+            }
+        } else {
+            to.set(0, 0);
+        }
+    }
+
+    /**
+     * Converts a finite float to the shortest decimal, which is converted back to the same float,
+     * the same way as {@link #toDecimal(double, MutableJsonNumber)}.
+     *
+     * @param value - a finite float
+     * @param to - the decimal
+     */
+    public static void toDecimal(final float value, final MutableJsonNumber to) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int t = bits & FLOAT_T_MASK;
+        final int bq = (bits >>> FLOAT_P - 1) & FLOAT_BQ_MASK;
+        if (bq == FLOAT_BQ_MASK) {
+            throw new IllegalArgumentException("Not a finite number: " + value);
+        }
+        if (bq != 0) { // a normal value
+            final int mq = -FLOAT_Q_MIN + 1 - bq;
+            final int c = FLOAT_C_MIN | t;
+            if (0 < mq && mq < FLOAT_P) { // maybe an integer
+                final int f = c >> mq;
+                if (f << mq == c) {
+                    setDecimal(to, bits < 0 ? -f : f, 0);
+                    return;
+                }
+            }
+            toDecimal(-mq, c, 0, bits < 0, to);
+        } else if (t != 0) { // a subnormal value
+            if (t < FLOAT_C_TINY) {
+                toDecimal(FLOAT_Q_MIN, 10 * t, -1, bits < 0, to);
+            } else {
+                toDecimal(FLOAT_Q_MIN, t, 0, bits < 0, to);
+            }
+        } else {
+            to.set(0, 0);
+        }
+    }
+
+    private static void toDecimal(final int q, final long c, final int dk, final boolean negative,
+                                  final MutableJsonNumber to) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        final int h = q + floorLog2Pow10(-k) + 2;
+
+        final int index = (k - K_MIN) << 1;
+        final long g1 = POWERS_OF_TEN[index];
+        final long g0 = POWERS_OF_TEN[index + 1];
+
+        final long vb = roundOdd(g1, g0, cb << h);
+        final long vbl = roundOdd(g1, g0, cbl << h);
+        final long vbr = roundOdd(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) {
+            final long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4); // s / 10 * 10
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                setDecimal(to, negative ? -(upin ? sp10 : tp10) : upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        final long d;
+        if (uin != win) {
+            d = uin ? s : t;
+        } else {
+            final long cmp = vb - (s + t << 1);
+            d = cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t;
+        }
+        setDecimal(to, negative ? -d : d, k + dk);
+    }
+
+    private static void toDecimal(final int q, final int c, final int dk, final boolean negative,
+                                  final MutableJsonNumber to) {
+        final int out = c & 0x1;
+        final long cb = (long) c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        final int h = q + floorLog2Pow10(-k) + 33;
+
+        final long g = POWERS_OF_TEN[(k - K_MIN) << 1] + 1;
+
+        final int vb = roundOdd(g, cb << h);
+        final int vbl = roundOdd(g, cbl << h);
+        final int vbr = roundOdd(g, cbr << h);
+
+        final int s = vb >> 2;
+        if (s >= 100) {
+            final int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34); // s / 10 * 10
+            final int tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                setDecimal(to, negative ? -(upin ? sp10 : tp10) : upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        final int t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        final int d;
+        if (uin != win) {
+            d = uin ? s : t;
+        } else {
+            final int cmp = vb - (s + t << 1);
+            d = cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t;
+        }
+        setDecimal(to, negative ? -d : d, k + dk);
+    }
+
+    private static void setDecimal(final MutableJsonNumber to, final long mantissa, final int exp) {
+        long m = mantissa;
+        int e = exp;
+        long q = m / 10;
+        while (q * 10 == m) { // the trailing zeros are removed, the mantissa isn't zero here
+            m = q;
+            e++;
+            q = m / 10;
+        }
+        to.set(m, e);
+    }
+
+    private static long roundOdd(final long g1, final long g0, final long cp) {
+        final long x1 = Math.multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = Math.multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int roundOdd(final long g, final long cp) {
+        final long x1 = Math.multiplyHigh(g, cp);
+        final long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    private static int floorLog10Pow2(final int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int floorLog10ThreeQuartersPow2(final int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    private static int floorLog2Pow10(final int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Returns floor(log2(10^exp)) + 63.
+     *
+     * @param exp - the decimal exponent
+     * @return the binary exponent
+     */
+    private static int power(final int exp) {
+        return (((152170 + 65536) * exp) >> 16) + 63;
+    }
+
+    private static long multiplyHighUnsigned(final long x, final long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    private static long[] powersOfTen() {
+        final long[] result = new long[(K_MAX - K_MIN + 1) << 1];
+        int i = 0;
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            // g = floor(10^-k * 2^-r) + 1, where r = floor(log2(10^-k)) - 125, so 2^125 <= g < 2^126
+            final int r = floorLog2Pow10(-k) - 125;
+            final BigInteger power = BigInteger.TEN.pow(Math.abs(k));
+            final BigInteger g;
+            if (k <= 0) {
+                g = r <= 0 ? power.shiftLeft(-r) : power.shiftRight(r);
+            } else {
+                g = BigInteger.ONE.shiftLeft(-r).divide(power);
+            }
+            final BigInteger g1 = g.add(BigInteger.ONE);
+            result[i++] = g1.shiftRight(63).longValue();
+            result[i++] = g1.longValue() & MASK_63;
+        }
+        return result;
+    }
+
+    private static long[] powersOfFive() {
+        final long[] result = new long[(LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1) << 1];
+        final BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        int i = 0;
+        for (int q = SMALLEST_POWER_OF_TEN; q < 0; q++) {
+            final BigInteger power = BigInteger.valueOf(5).pow(-q);
+            final int z = power.bitLength();
+            final int b = q >= -27 ? z + 127 : 2 * z + 2 * 64;
+            BigInteger c = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+            if (c.compareTo(two128) >= 0) {
+                c = c.shiftRight(c.bitLength() - 128);
+            }
+            result[i++] = c.shiftRight(64).longValue();
+            result[i++] = c.longValue();
+        }
+        for (int q = 0; q <= LARGEST_POWER_OF_TEN; q++) {
+            BigInteger power = BigInteger.valueOf(5).pow(q);
+            final int bitLength = power.bitLength();
+            power = bitLength < 128 ? power.shiftLeft(128 - bitLength) : power.shiftRight(bitLength - 128);
+            result[i++] = power.shiftRight(64).longValue();
+            result[i++] = power.longValue();
+        }
+        return result;
+    }
+}
@@ -23,6 +23,11 @@
  */
 package io.github.green4j.jelly;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Parses JSON character sequence.
  */
@@ -60,7 +65,9 @@ public final class JsonParser {
     private static final int LEXEMA_NUMBER_STARTED_E_SIGN = LEXEMA_NUMBER_STARTED_E + 1;
     private static final int LEXEMA_NUMBER_STARTED_E_VALUE = LEXEMA_NUMBER_STARTED_E_SIGN + 1;
 
-    private static final int LEXEMA_READY = LEXEMA_NUMBER_STARTED_E_VALUE + 1;
+    private static final int LEXEMA_SKIPPING = LEXEMA_NUMBER_STARTED_E_VALUE + 1;
+
+    private static final int LEXEMA_READY = LEXEMA_SKIPPING + 1;
 
     private static final int LEXEMA_CURLY_BRACKET_LEFT_READY = LEXEMA_READY + 1;
     private static final int LEXEMA_CURLY_BRACKET_RIGHT_READY = LEXEMA_CURLY_BRACKET_LEFT_READY + 1;
@@ -111,11 +118,27 @@ public final class JsonParser {
 
     private static final String ERROR_INTERNAL_UNEXPECTED_LEXEMA_ERROR_MESSAGE = "Internal error. Unexpected lexema";
 
+    private static final int ABORTED = Integer.MIN_VALUE; // the result of a lexema method if the parsing is aborted
+
     private static final int JSON_STARTED_NOTIFICATION_REQUIRED = -1;
     private static final int RESET_REQUIRED = JSON_STARTED_NOTIFICATION_REQUIRED - 1;
 
+    private static final int SKIPPING_STRING = 1;
+    private static final int SKIPPING_STRING_ESCAPE = 2;
+
     private static final long MAX_MANTISSA_BASE = 922337203685477579L;
 
+    // word-at-a-time reading of the bytes, when the data is a byte array
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int TRUE_WORD = word("true");
+    private static final int FALSE_WORD = word("alse"); // 'f' is already read
+    private static final int NULL_WORD = word("null");
+
+    private static final long EIGHT_DIGITS_BASE = 100_000_000L;
+    // no overflow of the mantissa is possible while reading 8 digits to the mantissa not greater than the value
+    private static final long MAX_EIGHT_DIGITS_MANTISSA = (MAX_MANTISSA_BASE - 9_999_999L) / 10_000_000L;
+
     public static final long MAX_MANTISSA_VALUE = MAX_MANTISSA_BASE * 10 + 9;
 
     public static boolean parseNumber(final CharSequence data, final MutableJsonNumber to) {
@@ -358,13 +381,32 @@ public final class JsonParser {
     private final Next next = () -> JsonParser.this.next();
 
     private final MutableJsonNumber number = new MutableJsonNumber();
+    private final MutableJsonWideNumber wideNumber = new MutableJsonWideNumber();
     private final JsonStringBuilder string;
+    private final ByteArrayCharSequence bytes = new ByteArrayCharSequence();
+    private final ByteBufferCharSequence byteBuffer = new ByteBufferCharSequence();
 
     private JsonParserListener listener;
 
     private boolean notifyObjectMemberNameString;
+    private MemberNameDictionary memberNames;
+    private boolean doubleNumbers;
+    private boolean wideNumbers;
+    private boolean wideNumberContinued;
+
+    private boolean recordStream;
+    private boolean skipMalformedRecords;
+    private long recordIndex;
+    private boolean recordSkipping;
+    private int recordPosition; // the first position of the current record, negative if in a previous data
+    private boolean recordLineStarted; // a new line inside the current record starts the current data
+
+    private JsonStructuralIndex structuralIndex;
+    private boolean structuralIndexed;
 
     private CharSequence currentData;
+    private byte[] currentBytes; // the array of the data, if the data is a byte array, null otherwise
+    private int currentBytesOffset; // index of the data's char 0 in the array
     private int currentLen;
     private int currentStart;
     private int currentPos;
@@ -375,6 +417,21 @@ public final class JsonParser {
     private int numberMinuses;
     private boolean numberOverflow;
 
+    private boolean stringEscaped;
+
+    private boolean skipRequested;
+    private boolean skippingToComma;
+    private int skippingDepth;
+    private int skippingString;
+
+    private boolean captureRequested;
+    private boolean capturing;
+    private int captureFrom = -1;
+    private int captureLength;
+    private CharArrayCharSequence capturedChars;
+    private ByteArrayCharSequence capturedBytes;
+    private CharSequence captured;
+
     private String error;
     private int errorPosition;
 
@@ -402,6 +459,149 @@ public final class JsonParser {
         return this;
     }
 
+    public MemberNameDictionary getMemberNames() {
+        return memberNames;
+    }
+
+    /**
+     * Sets a dictionary of the expected member names. If set, the members are notified with
+     * {@link JsonParserListener#onObjectMember(CharSequence, int)} with the id of the name.
+     * The names are looked up as they are presented by the {@link JsonStringBuilder} of the parser.
+     *
+     * @param memberNames - dictionary of the names or null
+     * @return this
+     */
+    public JsonParser setMemberNames(final MemberNameDictionary memberNames) {
+        this.memberNames = memberNames;
+        return this;
+    }
+
+    public boolean isDoubleNumbers() {
+        return doubleNumbers;
+    }
+
+    /**
+     * Enables the conversion of the numbers to double. If enabled, the numbers are notified with
+     * {@link JsonParserListener#onNumberValue(JsonNumber, boolean, double)} with the closest double
+     * to the number.
+     *
+     * @param doubleNumbers - true to convert the numbers
+     * @return this
+     */
+    public JsonParser setDoubleNumbers(final boolean doubleNumbers) {
+        this.doubleNumbers = doubleNumbers;
+        return this;
+    }
+
+    public boolean isWideNumbers() {
+        return wideNumbers;
+    }
+
+    /**
+     * Enables the wide numbers. If enabled, the numbers are notified as {@link JsonWideNumber}s,
+     * which keep the text of the numbers and 128-bit mantissas, so the numbers with
+     * overflowed 64-bit mantissas (see {@link JsonEventListener#onNumberValue(JsonNumber, boolean)})
+     * don't lose the digits.
+     *
+     * @param wideNumbers - true to enable the wide numbers
+     * @return this
+     */
+    public JsonParser setWideNumbers(final boolean wideNumbers) {
+        this.wideNumbers = wideNumbers;
+        return this;
+    }
+
+    /**
+     * Requests the parser to skip the value, which is being parsed. Can be called
+     * from {@link JsonParserListener#onObjectMember(CharSequence)} to skip the value of the member,
+     * or from {@link JsonParserListener#onObjectStarted()} / {@link JsonParserListener#onArrayStarted()}
+     * to skip the content of the object / array. Also, can be called after the parsing was stopped
+     * by one of those callbacks, before the parsing is continued.
+     * The parser scans the skipped chars tracking quotes, escapes and brackets only, so no
+     * callbacks are fired and no strings are built. The content skipped isn't validated.
+     * In case of a skipped object / array, {@link JsonParserListener#onObjectEnded()} /
+     * {@link JsonParserListener#onArrayEnded()} is still notified.
+     * The request made from any other callback is ignored.
+     */
+    public void skipValue() {
+        skipRequested = true;
+        captureRequested = false;
+    }
+
+    /**
+     * Requests the parser to capture the value, which is being parsed. The value is skipped
+     * the same way as with {@link #skipValue()}, but the chars of the value are notified
+     * as is with {@link JsonParserListener#onRawValue(CharSequence, int, int)}, without
+     * the whitespaces around. In case of an object / array, the content between the brackets
+     * is captured, and nothing is notified if the content is empty.
+     * If the value is completed in the same data it started, the data itself is notified, so
+     * no chars are copied. Otherwise, the chars are accumulated in a buffer of the parser.
+     */
+    public void captureValue() {
+        skipRequested = true;
+        captureRequested = true;
+    }
+
+    /**
+     * Checks whether the string value or the member name being notified contains escape sequences.
+     * If not, the string is notified exactly as it is in the JSON, so it can be written
+     * without escaping again, see {@link JsonGenerator#stringValue(CharSequence, boolean)}.
+     *
+     * @return true if the string contains escape sequences
+     */
+    public boolean isStringEscaped() {
+        return stringEscaped;
+    }
+
+    public boolean isRecordStream() {
+        return recordStream;
+    }
+
+    /**
+     * Switches the parser to the record-stream mode (NDJSON, JSON Lines, concatenated JSON).
+     * In this mode every top-level value is a separate record. The records are separated by
+     * whitespaces or new lines, and every record is notified with a pair of
+     * {@link JsonParserListener#onJsonStarted()} and {@link JsonParserListener#onJsonEnded()}
+     * as soon as its last lexema is parsed, so no {@link #eoj()} is required between the records.
+     * The mode should be changed before the parsing is started or after {@link #eoj()} / {@link #reset()}.
+     *
+     * @param recordStream - true to enable the record-stream mode
+     * @return this
+     */
+    public JsonParser setRecordStream(final boolean recordStream) {
+        this.recordStream = recordStream;
+        return this;
+    }
+
+    public boolean isSkipMalformedRecords() {
+        return skipMalformedRecords;
+    }
+
+    /**
+     * In the record-stream mode, makes the parser continue with the next line after a malformed record.
+     * The error is notified with {@link JsonParserListener#onError(String, int)} followed by
+     * {@link JsonParserListener#onJsonEnded()} of the malformed record. If the error is found at a line
+     * started inside the malformed record (e.g. the record is truncated), the parsing continues from
+     * the beginning of that line, otherwise the rest of the line is skipped.
+     *
+     * @param skipMalformedRecords - true to skip malformed records
+     * @return this
+     */
+    public JsonParser setSkipMalformedRecords(final boolean skipMalformedRecords) {
+        this.skipMalformedRecords = skipMalformedRecords;
+        return this;
+    }
+
+    /**
+     * Returns the zero-based index of the record being parsed in the record-stream mode,
+     * or the number of the records parsed if called after the end of a record.
+     *
+     * @return index of the current record
+     */
+    public long getRecordIndex() {
+        return recordIndex;
+    }
+
     public JsonParser setListener(final JsonParserListener listener) {
         this.listener = listener;
         return this;
@@ -428,31 +628,217 @@ public final class JsonParser {
         return parse(data, 0, data.length());
     }
 
+    public void parseAndEoj(final byte[] data) {
+        parse(data);
+        eoj();
+    }
+
+    public Next parse(final byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Parses a part of UTF-8 encoded JSON document.
+     * The bytes are parsed as is, without any intermediate decoding. Multibyte
+     * sequences of string values are decoded by the {@link JsonStringBuilder}, so
+     * a sequence may be split between two subsequent calls of the method.
+     * All the positions reported by the parser are byte positions in this case.
+     *
+     * @param data - UTF-8 encoded bytes
+     * @param start - index of the first byte
+     * @param len - number of bytes to be parsed
+     * @return an instance of the Next if the parsing was stopped by the listener, null otherwise
+     */
+    public Next parse(final byte[] data, final int start, final int len) {
+        bytes.set(data);
+        return parse(bytes, start, len);
+    }
+
+    /**
+     * Parses a part of UTF-8 encoded JSON document in two stages. The first stage builds
+     * a {@link JsonStructuralIndex} of the bytes, the second one is the usual parsing,
+     * which consumes string values without escaped chars and skipped values
+     * (see {@link #skipValue()}) at once with the help of the index.
+     * The events are exactly the same as ones of {@link #parse(byte[], int, int)}, the two-stage
+     * parsing pays off for large parts with long string values.
+     * <p>
+     * The index is built for the part as a whole, so if the previous part is completed in the middle
+     * of a lexema, or a malformed record is being skipped, the part is parsed in one stage.
+     *
+     * @param data - UTF-8 encoded bytes
+     * @param start - index of the first byte
+     * @param len - number of bytes to be parsed
+     * @return an instance of the Next if the parsing was stopped by the listener, null otherwise
+     */
+    public Next parseIndexed(final byte[] data, final int start, final int len) {
+        bytes.set(data);
+        final boolean indexed = currentLexemaState >= LEXEMA_READY && !recordSkipping;
+        if (indexed) {
+            if (structuralIndex == null) {
+                structuralIndex = new JsonStructuralIndex();
+            }
+            structuralIndex.index(data, start, len);
+        }
+        return parse(bytes, start, len, indexed);
+    }
+
+    public void parseAndEoj(final ByteBuffer data) {
+        parse(data);
+        eoj();
+    }
+
+    /**
+     * Parses a part of UTF-8 encoded JSON document between the position and the limit
+     * of a heap or a direct buffer. The bytes aren't copied, the same way as
+     * for {@link #parse(byte[], int, int)}. The position of the buffer isn't changed,
+     * the content of the buffer must not be changed until the parsing is completed,
+     * i.e. an instance of the Next returned is null.
+     * All the positions reported by the parser are byte positions relative to the position of the buffer.
+     *
+     * @param data - UTF-8 encoded bytes
+     * @return an instance of the Next if the parsing was stopped by the listener, null otherwise
+     */
+    public Next parse(final ByteBuffer data) {
+        byteBuffer.set(data);
+        return parse(byteBuffer, data.position(), data.remaining());
+    }
+
     public Next parse(final CharSequence data, final int start, final int len) {
+        return parse(data, start, len, false);
+    }
+
+    private Next parse(final CharSequence data, final int start, final int len, final boolean indexed) {
+        this.structuralIndexed = indexed;
         this.currentData = data;
+        if (data instanceof ByteArray) {
+            final ByteArray array = (ByteArray) data;
+            this.currentBytes = array.array();
+            this.currentBytesOffset = array.start() + start;
+        } else {
+            this.currentBytes = null;
+        }
         this.currentStart = start;
         this.currentLen = len;
         this.currentPos = 0;
+        this.recordPosition = -1;
         return next();
     }
 
     private Next next() {
+        if (!recordSkipping || skipMalformedRecord()) {
+            while (true) {
+                final Next result = nextLexemas();
+                if (result != null || error == null || !recordStream || !skipMalformedRecords) {
+                    return result;
+                }
+                // recover after the malformed record
+                final int line = malformedRecordLine();
+                structuralIndexed = false; // the index can be inconsistent with the malformed data
+                clearScope();
+                currentLexemaState = LEXEMA_READY;
+                wideNumberContinued = false;
+                capturing = false;
+                error = null;
+                endRecord(listener);
+                if (line >= 0) { // the record is broken by a line of its own, the line can be a valid record
+                    currentPos = line;
+                    continue;
+                }
+                recordSkipping = true; // the rest of the line is skipped
+                if (!skipMalformedRecord()) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the beginning of the last line started inside the malformed record before the error.
+     *
+     * @return the position of the line in the current data, or -1 if no line starts inside the record
+     */
+    private int malformedRecordLine() {
+        final CharSequence data = currentData;
+        final int start = currentStart;
+        final int from = Math.max(recordPosition, -1);
+
+        int pos = Math.min(errorPosition, currentPos); // the error can be positioned in a previous data
+        while (--pos > from) {
+            if (data.charAt(start + pos) == '\n') {
+                return pos + 1;
+            }
+        }
+        return recordPosition < 0 && recordLineStarted ? 0 : -1;
+    }
+
+    /**
+     * Checks if the data consumed ends with a new line inside the current record, followed by whitespaces only.
+     *
+     * @param data - the data
+     * @param start - start of the data
+     * @param len - length of the data
+     * @return true if the next data starts a line inside the current record
+     */
+    private boolean recordLineEnded(final CharSequence data, final int start, final int len) {
+        final int from = Math.max(recordPosition, -1);
+
+        int pos = len;
+        while (--pos > from) {
+            final char c = data.charAt(start + pos);
+            if (c == '\n') {
+                return true;
+            }
+            if (!isWhitespace(c)) {
+                return false;
+            }
+        }
+        return recordPosition < 0 && recordLineStarted; // the data are whitespaces only
+    }
+
+    private boolean skipMalformedRecord() {
+        final CharSequence data = currentData;
+        final int start = currentStart;
+        final int len = currentLen;
+
+        int pos = Math.max(currentPos, 0); // a number's lexema can be completed before the current chunk
+        while (pos < len) {
+            if (data.charAt(start + pos++) == '\n') {
+                recordSkipping = false;
+                break;
+            }
+        }
+        currentPos = pos;
+        return !recordSkipping;
+    }
+
+    /**
+     * The dispatch core of the parsing. The lexemas are parsed by the lexema methods,
+     * which are kept small enough to be compiled and inlined by the JIT. A lexema method
+     * gets the position of the char to be parsed, updates the current lexema's state and
+     * position and returns the position of the next char to be parsed, or its complement (~)
+     * if the parsing is stopped by the listener, or {@link #ABORTED}.
+     *
+     * @return an instance of the Next if the parsing was stopped by the listener, null otherwise
+     */
+    private Next nextLexemas() {
         final JsonParserListener lnr = listener;
 
         assert lnr != null;
 
-        int currentLexPos = currentLexemaPosition;
-
-        if (currentLexPos < 0) {
-            if (currentLexPos < JSON_STARTED_NOTIFICATION_REQUIRED) {
+        if (currentLexemaPosition < 0) {
+            if (currentLexemaPosition < JSON_STARTED_NOTIFICATION_REQUIRED) {
                 doReset();
             }
-            lnr.onJsonStarted();
+            if (!recordStream) {
+                lnr.onJsonStarted();
+            }
+            currentLexemaPosition = 0;
         }
 
-        int currentLexState = currentLexemaState;
-
-        final JsonStringBuilder stringBuilder = this.string;
+        if (skipRequested) {
+            currentLexemaState = startSkipping(currentLexemaState);
+        }
 
         final CharSequence data = currentData;
         final int start = currentStart;
@@ -461,774 +847,632 @@ public final class JsonParser {
         int pos = currentPos;
 
         try {
-            _end:
             while (pos < len) {
-                char c = data.charAt(start + pos);
-
-                if (currentLexState >= LEXEMA_READY) {
-                    _next_char:
-                    switch (c) {
-                        case 0x09:
-                        case 0x0a:
-                        case 0x0d:
-                        case 0x20:
-                            break;
-                        case '{': {
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_CURLY_BRACKET_LEFT_READY;
-                            final int r = onCurlyBracketLeft(lnr, currentLexPos);
-                            if (r == 0) {
-                                break;
-                            }
-                            if (r > 0) {
-                                pos++;
-                                break _end;
-                            }
-                            return null;
-                        }
-                        case '}': {
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_CURLY_BRACKET_RIGHT_READY;
-                            final int r = onCurlyBracketRight(lnr, currentLexPos);
-                            if (r == 0) {
-                                break;
-                            }
-                            if (r > 0) {
-                                pos++;
-                                break _end;
-                            }
-                            return null;
-                        }
-                        case '[': {
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_BOX_BRACKET_LEFT_READY;
-                            final int r = onBoxBracketLeft(lnr, currentLexPos);
-                            if (r == 0) {
-                                break;
-                            }
-                            if (r > 0) {
-                                pos++;
-                                break _end;
-                            }
-                            return null;
-                        }
-                        case ']': {
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_BOX_BRACKET_RIGHT_READY;
-                            final int r = onBoxBracketRight(lnr, currentLexPos);
-                            if (r == 0) {
-                                break;
-                            }
-                            if (r > 0) {
-                                pos++;
-                                break _end;
-                            }
-                            return null;
-                        }
-                        case ',': {
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_COMMA_READY;
-                            final int r = onComma(currentLexPos);
-                            if (r == 0) {
-                                break;
-                            }
-                            return null;
-                        }
-                        case ':': {
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_COLON_READY;
-                            final int r = onColon(currentLexPos);
-                            if (r == 0) {
-                                break;
-                            }
-                            return null;
-                        }
-                        case 't': {
-                            if (currentLexState > LEXEMA_NUMBER_READY) {
-                                error(ERROR_TRUE_EXPECTED_MESSAGE, pos);
-                                return null;
-                            }
-                            currentLexPos = pos;
-                            if (len - pos > 3) { // try to read the whole 'true' value
-                                if (data.charAt(++pos + start) == 'r'
-                                        && data.charAt(++pos + start) == 'u'
-                                        && data.charAt(++pos + start) == 'e') {
-
-                                    currentLexState = LEXEMA_TRUE_READY;
-                                    final int r = onTrue(lnr, currentLexPos);
-                                    if (r == 0) {
-                                        break _next_char;
-                                    }
-                                    if (r > 0) {
-                                        pos++;
-                                        break _end;
-                                    }
-                                    return null;
-                                }
-                                error(ERROR_TRUE_EXPECTED_MESSAGE, currentLexPos);
-                                return null;
-                            }
-                            currentLexState = LEXEMA_TRUE_STARTED_T;
-                            break;
-                        }
-                        case 'f': {
-                            if (currentLexState > LEXEMA_NUMBER_READY) {
-                                error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
-                                return null;
-                            }
-                            currentLexPos = pos;
-                            if (len - pos > 4) { // try to read the whole 'false' value
-                                if (data.charAt(++pos + start) == 'a'
-                                        && data.charAt(++pos + start) == 'l'
-                                        && data.charAt(++pos + start) == 's'
-                                        && data.charAt(++pos + start) == 'e') {
-
-                                    currentLexState = LEXEMA_FALSE_READY;
-                                    final int r = onFalse(lnr, currentLexPos);
-                                    if (r == 0) {
-                                        break _next_char;
-                                    }
-                                    if (r > 0) {
-                                        pos++;
-                                        break _end;
-                                    }
-                                    return null;
-                                }
-                                error(ERROR_FALSE_EXPECTED_MESSAGE, currentLexPos);
-                                return null;
-                            }
-                            currentLexState = LEXEMA_FALSE_STARTED_F;
-                            break;
-                        }
-                        case 'n': {
-                            if (currentLexState > LEXEMA_NUMBER_READY) {
-                                error(ERROR_NULL_EXPECTED_MESSAGE, pos);
-                                return null;
-                            }
-                            currentLexPos = pos;
-                            if (len - pos > 3) { // try to read the whole 'null' value
-                                if (data.charAt(++pos + start) == 'u'
-                                        && data.charAt(++pos + start) == 'l'
-                                        && data.charAt(++pos + start) == 'l') {
-
-                                    currentLexState = LEXEMA_NULL_READY;
-                                    final int r = onNull(lnr, currentLexPos);
-                                    if (r == 0) {
-                                        break _next_char;
-                                    }
-                                    if (r > 0) {
-                                        pos++;
-                                        break _end;
-                                    }
-                                    return null;
-                                }
-                                error(ERROR_NULL_EXPECTED_MESSAGE, currentLexPos);
-                                return null;
-                            }
-                            currentLexState = LEXEMA_NULL_STARTED_N;
-                            break;
-                        }
-                        case '"': {
-                            stringBuilder.start(data, start + pos);
-                            currentLexPos = pos;
-                            if (len - pos > 1) { // try to read available part of the string value
-                                pos++;
-                                final int startStringPos = pos;
-                                while (true) {
-                                    c = data.charAt(start + pos);
-                                    switch (c) {
-                                        case '"':
-                                            stringBuilder.append(data, start + startStringPos, pos - startStringPos);
-                                            currentLexState = LEXEMA_STRING_READY;
-                                            final int r = onStringReady(lnr, currentLexPos);
-                                            if (r == 0) {
-                                                break _next_char;
-                                            }
-                                            if (r > 0) {
-                                                pos++;
-                                                break _end;
-                                            }
-                                            return null;
-                                        case '\\':
-                                            stringBuilder.append(data, startStringPos, pos - startStringPos);
-                                            stringBuilder.appendEscape();
-                                            currentLexState = LEXEMA_STRING_STARTED_ESCAPE;
-                                            break _next_char;
-                                        default:
-                                            break;
-                                    }
-                                    if (++pos == len) {
-                                        stringBuilder.append(data, startStringPos, pos - startStringPos);
-                                        break;
-                                    }
-                                }
-                            }
-                            currentLexState = LEXEMA_STRING_STARTED;
-                            break;
-                        }
-                        case '-': {
-                            number.setMantissa(0);
-                            number.setExp(0);
-                            numberMantissaExp = 0;
-                            numberMinuses = 2;
-                            numberOverflow = false;
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_NUMBER_STARTED_MANTISSA_SIGN;
-                            break;
-                        }
-                        case '+': {
-                            number.setMantissa(0);
-                            number.setExp(0);
-                            numberMantissaExp = 0;
-                            numberMinuses = 0;
-                            numberOverflow = false;
-                            currentLexPos = pos;
-                            currentLexState = LEXEMA_NUMBER_STARTED_MANTISSA_SIGN;
-                            break;
-                        }
-                        case '0':
-                        case '1':
-                        case '2':
-                        case '3':
-                        case '4':
-                        case '5':
-                        case '6':
-                        case '7':
-                        case '8':
-                        case '9': {
-                            number.setMantissa(c - '0');
-                            number.setExp(0);
-                            numberMantissaExp = 0;
-                            numberMinuses = 0;
-                            numberOverflow = false;
-                            currentLexPos = pos;
-                            if (len - pos > 1) { // try to read available part of the number value's mantissa
-                                pos++;
-                                while (true) {
-                                    c = data.charAt(start + pos);
-                                    if (c >= '0' && c <= '9') {
-                                        final long m = number.mantissa();
-                                        numberOverflow |= m > MAX_MANTISSA_BASE;
-                                        if (!numberOverflow) {
-                                            number.setMantissa(m * 10 + (c - '0'));
-                                        } else {
-                                            numberMantissaExp++;
-                                        }
-                                        if (++pos == len) {
-                                            break;
-                                        }
-                                        continue;
-                                    }
-                                    switch (c) {
-                                        case '.':
-                                            currentLexState = LEXEMA_NUMBER_STARTED_MANTISSA_FRACTIONAL_PART;
-                                            break _next_char;
-                                        case 'e':
-                                        case 'E':
-                                            currentLexState = LEXEMA_NUMBER_STARTED_E;
-                                            break _next_char;
-                                        case 0x09:
-                                        case 0x0a:
-                                        case 0x0d:
-                                        case 0x20:
-                                        case '{':
-                                        case '}':
-                                        case '[':
-                                        case ']':
-                                        case ',':
-                                        case ':':
-                                            pos--;
-                                            currentLexState = LEXEMA_NUMBER_READY;
-                                            final int r = onNumber(lnr, currentLexPos);
-                                            if (r == 0) {
-                                                break _next_char;
-                                            }
-                                            if (r > 0) {
-                                                pos++;
-                                                break _end;
-                                            }
-                                            return null;
-                                        default:
-                                            error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
-                                            return null;
-                                    }
-                                }
-                            }
-                            currentLexState = LEXEMA_NUMBER_STARTED_MANTISSA_INTEGER_PART;
-                            break;
-                        }
-                        default:
-                            error(ERROR_UNEXPECTED_CHAR_MESSAGE, pos);
-                            return null;
+                final int nextPos;
+                if (currentLexemaState >= LEXEMA_READY) {
+                    final char c = data.charAt(start + pos);
+                    if (c == 0x20 || c == 0x0a || c == 0x0d || c == 0x09) {
+                        pos = skipWhitespaces(data, start, len, pos + 1);
+                        continue;
                     }
+                    nextPos = startLexema(lnr, data, start, len, pos, c);
                 } else {
-                    _next_char:
-                    switch (currentLexState) {
-
-                        /* string value - the rest */
-                        case LEXEMA_STRING_STARTED: {
-                            final int startStringPos = pos;
-                            while (true) {
-                                switch (c) {
-                                    case '"':
-                                        stringBuilder.append(data, startStringPos, pos - startStringPos);
-                                        currentLexState = LEXEMA_STRING_READY;
-                                        final int r = onStringReady(lnr, currentLexPos);
-                                        if (r == 0) {
-                                            break _next_char;
-                                        }
-                                        if (r > 0) {
-                                            pos++;
-                                            break _end;
-                                        }
-                                        return null;
-                                    case '\\':
-                                        stringBuilder.append(data, startStringPos, pos - startStringPos);
-                                        stringBuilder.appendEscape();
-                                        currentLexState = LEXEMA_STRING_STARTED_ESCAPE;
-                                        break _next_char;
-                                    default:
-                                        break;
-                                }
-                                if (++pos == len) {
-                                    stringBuilder.append(data, startStringPos, pos - startStringPos);
-                                    break;
-                                }
-                                c = data.charAt(start + pos);
-                            }
-                            break;
-                        }
-                        case LEXEMA_STRING_STARTED_ESCAPE: {
-                            switch (c) {
-                                case '"':
-                                    stringBuilder.appendEscapedQuotationMark();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case '\\':
-                                    stringBuilder.appendEscapedReverseSolidus();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case '/':
-                                    stringBuilder.appendEscapedSolidus();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case 'b':
-                                    stringBuilder.appendEscapedBackspace();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case 'f':
-                                    stringBuilder.appendEscapedFormfeed();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case 'n':
-                                    stringBuilder.appendEscapedNewLine();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case 'r':
-                                    stringBuilder.appendEscapedCarriageReturn();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case 't':
-                                    stringBuilder.appendEscapedHorisontalTab();
-                                    currentLexState = LEXEMA_STRING_STARTED;
-                                    break _next_char;
-                                case 'u':
-                                    stringBuilder.appendEscapedUnicodeU();
-                                    currentLexState = LEXEMA_STRING_STARTED_ESCAPE_UNICODE;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_INCORRECT_ESCAPING_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_STRING_STARTED_ESCAPE_UNICODE: {
-                            if (stringBuilder.appendEscapedUnicodeChar1(c)) {
-                                currentLexState = LEXEMA_STRING_STARTED_ESCAPE_UNICODE_1;
-                                break;
-                            } else {
-                                error(ERROR_MESSAGE_INCORRECT_UNICODE_ESCAPING, pos);
-                                return null;
-                            }
-                        }
-                        case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_1: {
-                            if (stringBuilder.appendEscapedUnicodeChar2(c)) {
-                                currentLexState = LEXEMA_STRING_STARTED_ESCAPE_UNICODE_2;
-                                break;
-                            } else {
-                                error(ERROR_MESSAGE_INCORRECT_UNICODE_ESCAPING, pos);
-                                return null;
-                            }
-                        }
-                        case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_2: {
-                            if (stringBuilder.appendEscapedUnicodeChar3(c)) {
-                                currentLexState = LEXEMA_STRING_STARTED_ESCAPE_UNICODE_3;
-                                break;
-                            } else {
-                                error(ERROR_MESSAGE_INCORRECT_UNICODE_ESCAPING, pos);
-                                return null;
-                            }
-                        }
-                        case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_3: {
-                            if (stringBuilder.appendEscapedUnicodeChar4(c)) {
-                                currentLexState = LEXEMA_STRING_STARTED;
-                                break;
-                            } else {
-                                error(ERROR_MESSAGE_INCORRECT_UNICODE_ESCAPING, pos);
-                                return null;
-                            }
-                        }
+                    nextPos = continueLexema(lnr, data, start, len, pos);
+                }
+                if (nextPos >= 0) {
+                    pos = nextPos;
+                    continue;
+                }
+                if (nextPos == ABORTED) {
+                    pos = currentPos;
+                    return null;
+                }
+                pos = ~nextPos; // stopped by the listener
+                break;
+            }
+            return pos < len ? next : null;
+        } finally {
+            suspend(data, start, len, pos);
+        }
+    }
+
+    /**
+     * Saves the position and keeps the parts of the lexema, which continues in the next data.
+     *
+     * @param data - the data
+     * @param start - start of the data
+     * @param len - length of the data
+     * @param pos - position of the next char to be parsed
+     */
+    private void suspend(final CharSequence data, final int start, final int len, final int pos) {
+        currentPos = pos;
+        final int currentLexState = currentLexemaState;
+        if (wideNumbers
+                && currentLexState >= LEXEMA_NUMBER_STARTED_MANTISSA_SIGN
+                && currentLexState <= LEXEMA_NUMBER_STARTED_E_VALUE
+                && pos >= len) { // the number continues in the next data
+            appendWideNumberText(currentLexemaPosition, len);
+            wideNumberContinued = true;
+        }
+        if (currentLexState >= LEXEMA_STRING_STARTED
+                && currentLexState <= LEXEMA_STRING_STARTED_ESCAPE_UNICODE_3) { // the string continues
+            string.partEnded();
+        }
+        if (capturing && currentLexState == LEXEMA_SKIPPING && captureFrom >= 0
+                && pos >= len) { // the captured value continues in the next data
+            appendCaptured(data, start + captureFrom, start + len);
+            captureFrom = 0;
+        }
+        if (skipMalformedRecords && recordStream && scopeStackDepth > 0 && pos >= len) {
+            recordLineStarted = recordLineEnded(data, start, len);
+        }
+    }
+
+    private int startLexema(final JsonParserListener lnr, final CharSequence data,
+                            final int start, final int len, final int pos, final char c) {
+        switch (c) {
+            case '{': {
+                currentLexemaPosition = pos;
+                currentLexemaState = LEXEMA_CURLY_BRACKET_LEFT_READY;
+                final int r = onCurlyBracketLeft(lnr, pos);
+                if (skipRequested && r >= 0) {
+                    currentLexemaState = startSkipping(currentLexemaState);
+                }
+                return result(r, pos);
+            }
+            case '}':
+                currentLexemaPosition = pos;
+                currentLexemaState = LEXEMA_CURLY_BRACKET_RIGHT_READY;
+                return result(onCurlyBracketRight(lnr, pos), pos);
+            case '[': {
+                currentLexemaPosition = pos;
+                currentLexemaState = LEXEMA_BOX_BRACKET_LEFT_READY;
+                final int r = onBoxBracketLeft(lnr, pos);
+                if (skipRequested && r >= 0) {
+                    currentLexemaState = startSkipping(currentLexemaState);
+                }
+                return result(r, pos);
+            }
+            case ']':
+                currentLexemaPosition = pos;
+                currentLexemaState = LEXEMA_BOX_BRACKET_RIGHT_READY;
+                return result(onBoxBracketRight(lnr, pos), pos);
+            case ',':
+                currentLexemaPosition = pos;
+                currentLexemaState = LEXEMA_COMMA_READY;
+                return result(onComma(pos), pos);
+            case ':':
+                currentLexemaPosition = pos;
+                currentLexemaState = LEXEMA_COLON_READY;
+                return result(onColon(pos), pos);
+            case 't':
+                return startTrue(lnr, data, start, len, pos);
+            case 'f':
+                return startFalse(lnr, data, start, len, pos);
+            case 'n':
+                return startNull(lnr, data, start, len, pos);
+            case '"':
+                return startString(lnr, data, start, len, pos);
+            case '-':
+                startNumber(pos, 0, 2);
+                currentLexemaState = LEXEMA_NUMBER_STARTED_MANTISSA_SIGN;
+                return pos + 1;
+            case '+':
+                startNumber(pos, 0, 0);
+                currentLexemaState = LEXEMA_NUMBER_STARTED_MANTISSA_SIGN;
+                return pos + 1;
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                startNumber(pos, c - '0', 0);
+                currentLexemaState = LEXEMA_NUMBER_STARTED_MANTISSA_INTEGER_PART;
+                // try to read available part of the number value's mantissa
+                return continueNumberIntegerPart(lnr, data, start, len, pos + 1);
+            default:
+                error(ERROR_UNEXPECTED_CHAR_MESSAGE, pos);
+                return aborted(pos);
+        }
+    }
+
+    private int continueLexema(final JsonParserListener lnr, final CharSequence data,
+                               final int start, final int len, final int pos) {
+        final int state = currentLexemaState;
+        switch (state) {
+            case LEXEMA_SKIPPING:
+                return continueSkipping(lnr, data, start, len, pos);
+            case LEXEMA_STRING_STARTED:
+                return continueString(lnr, data, start, len, pos, pos);
+            case LEXEMA_NUMBER_STARTED_MANTISSA_INTEGER_PART:
+                return continueNumberIntegerPart(lnr, data, start, len, pos);
+            case LEXEMA_NUMBER_STARTED_MANTISSA_FRACTIONAL_PART:
+                return continueNumberFractionalPart(lnr, data, start, len, pos);
+            default:
+                break;
+        }
+        final char c = data.charAt(start + pos);
+        switch (state) {
+            case LEXEMA_STRING_STARTED_ESCAPE:
+                return continueStringEscape(pos, c);
+            case LEXEMA_STRING_STARTED_ESCAPE_UNICODE:
+            case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_1:
+            case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_2:
+            case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_3:
+                return continueStringEscapeUnicode(pos, c, state);
+            case LEXEMA_NUMBER_STARTED_MANTISSA_SIGN:
+                return continueNumberSign(pos, c);
+            case LEXEMA_NUMBER_STARTED_E:
+            case LEXEMA_NUMBER_STARTED_E_SIGN:
+            case LEXEMA_NUMBER_STARTED_E_VALUE:
+                return continueNumberExp(lnr, pos, c, state);
+            case LEXEMA_TRUE_STARTED_T:
+            case LEXEMA_TRUE_STARTED_TR:
+            case LEXEMA_TRUE_STARTED_TRU:
+                return continueTrue(lnr, pos, c, state);
+            case LEXEMA_FALSE_STARTED_F:
+            case LEXEMA_FALSE_STARTED_FA:
+            case LEXEMA_FALSE_STARTED_FAL:
+            case LEXEMA_FALSE_STARTED_FALS:
+                return continueFalse(lnr, pos, c, state);
+            case LEXEMA_NULL_STARTED_N:
+            case LEXEMA_NULL_STARTED_NU:
+            case LEXEMA_NULL_STARTED_NUL:
+                return continueNull(lnr, pos, c, state);
+            default: // unknown state
+                error(ERROR_INTERNAL_UNEXPECTED_LEXEMA_ERROR_MESSAGE, pos);
+                return aborted(pos);
+        }
+    }
+
+    /**
+     * Converts the result of a handler of a lexema to the result of a lexema method.
+     *
+     * @param r - the result of the handler, 0 to continue, greater than 0 to stop, less than 0 to abort
+     * @param pos - position of the last char of the lexema
+     * @return the result of a lexema method
+     */
+    private int result(final int r, final int pos) {
+        if (r == 0) {
+            return pos + 1;
+        }
+        if (r > 0) {
+            return ~(pos + 1);
+        }
+        return aborted(pos);
+    }
+
+    private int aborted(final int pos) {
+        currentPos = pos;
+        return ABORTED;
+    }
+
+    /* skipping of a value */
+
+    private int continueSkipping(final JsonParserListener lnr, final CharSequence data,
+                                 final int start, final int len, final int from) {
+        int pos = from;
+        if (capturing && captureFrom < 0) { // whitespaces and a colon before the value
+            while (pos < len) {
+                final char c = data.charAt(start + pos);
+                if (!isWhitespace(c) && c != ':') {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == len) {
+                return pos;
+            }
+            captureFrom = pos;
+        }
+        pos = skip(data, start, pos, len);
+        if (pos < len) { // the char terminated the skipping is parsed as usual
+            currentLexemaState = LEXEMA_READY;
+            if (capturing && !onRawValue(lnr, pos)) {
+                return ~pos; // the terminating char is parsed with the next call
+            }
+        }
+        return pos;
+    }
+
+    /* string value */
+
+    private int startString(final JsonParserListener lnr, final CharSequence data,
+                            final int start, final int len, final int pos) {
+        string.start(data, start + pos);
+        stringEscaped = false;
+        currentLexemaPosition = pos;
+        currentLexemaState = LEXEMA_STRING_STARTED;
+        final int from = pos + 1; // try to read available part of the string value
+        int scanFrom = from;
+        if (structuralIndexed && from < len) {
+            final int end = structuralIndex.stringEnd(pos);
+            if (end > 0) {
+                scanFrom = end;
+            }
+        }
+        return continueString(lnr, data, start, len, from, scanFrom);
+    }
+
+    /**
+     * Reads available part of the string value.
+     *
+     * @param lnr - the listener
+     * @param data - the data
+     * @param start - start of the data
+     * @param len - length of the data
+     * @param from - position of the first char of the part
+     * @param scanFrom - position to look for the end of the part from
+     * @return the result of a lexema method
+     */
+    private int continueString(final JsonParserListener lnr, final CharSequence data,
+                               final int start, final int len, final int from, final int scanFrom) {
+        final JsonStringBuilder stringBuilder = string;
+        for (int pos = scanFrom; pos < len; pos++) {
+            final char c = data.charAt(start + pos);
+            if (c == '"') {
+                stringBuilder.append(data, start + from, pos - from);
+                stringBuilder.end();
+                currentLexemaState = LEXEMA_STRING_READY;
+                final int r = onStringReady(lnr, currentLexemaPosition);
+                if (skipRequested && r >= 0) {
+                    currentLexemaState = startSkipping(currentLexemaState);
+                }
+                return result(r, pos);
+            }
+            if (c == '\\') {
+                stringBuilder.append(data, start + from, pos - from);
+                stringBuilder.appendEscape();
+                stringEscaped = true;
+                currentLexemaState = LEXEMA_STRING_STARTED_ESCAPE;
+                return pos + 1;
+            }
+        }
+        if (from < len) {
+            stringBuilder.append(data, start + from, len - from);
+        }
+        return len;
+    }
+
+    private int continueStringEscape(final int pos, final char c) {
+        final JsonStringBuilder stringBuilder = string;
+        switch (c) {
+            case '"':
+                stringBuilder.appendEscapedQuotationMark();
+                break;
+            case '\\':
+                stringBuilder.appendEscapedReverseSolidus();
+                break;
+            case '/':
+                stringBuilder.appendEscapedSolidus();
+                break;
+            case 'b':
+                stringBuilder.appendEscapedBackspace();
+                break;
+            case 'f':
+                stringBuilder.appendEscapedFormfeed();
+                break;
+            case 'n':
+                stringBuilder.appendEscapedNewLine();
+                break;
+            case 'r':
+                stringBuilder.appendEscapedCarriageReturn();
+                break;
+            case 't':
+                stringBuilder.appendEscapedHorisontalTab();
+                break;
+            case 'u':
+                stringBuilder.appendEscapedUnicodeU();
+                currentLexemaState = LEXEMA_STRING_STARTED_ESCAPE_UNICODE;
+                return pos + 1;
+            default:
+                error(ERROR_INCORRECT_ESCAPING_MESSAGE, pos);
+                return aborted(pos);
+        }
+        currentLexemaState = LEXEMA_STRING_STARTED;
+        return pos + 1;
+    }
+
+    private int continueStringEscapeUnicode(final int pos, final char c, final int state) {
+        final JsonStringBuilder stringBuilder = string;
+        final boolean appended;
+        switch (state) {
+            case LEXEMA_STRING_STARTED_ESCAPE_UNICODE:
+                appended = stringBuilder.appendEscapedUnicodeChar1(c);
+                break;
+            case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_1:
+                appended = stringBuilder.appendEscapedUnicodeChar2(c);
+                break;
+            case LEXEMA_STRING_STARTED_ESCAPE_UNICODE_2:
+                appended = stringBuilder.appendEscapedUnicodeChar3(c);
+                break;
+            default:
+                appended = stringBuilder.appendEscapedUnicodeChar4(c);
+                break;
+        }
+        if (!appended) {
+            error(ERROR_MESSAGE_INCORRECT_UNICODE_ESCAPING, pos);
+            return aborted(pos);
+        }
+        currentLexemaState = state == LEXEMA_STRING_STARTED_ESCAPE_UNICODE_3 ? LEXEMA_STRING_STARTED : state + 1;
+        return pos + 1;
+    }
 
-                        /* number value - the rest */
-                        case LEXEMA_NUMBER_STARTED_MANTISSA_INTEGER_PART: {
-                            while (true) {
-                                if (c >= '0' && c <= '9') {
-                                    final long m = number.mantissa();
-                                    numberOverflow |= m > MAX_MANTISSA_BASE;
-                                    if (!numberOverflow) {
-                                        number.setMantissa(m * 10 + (c - '0'));
-                                    } else {
-                                        numberMantissaExp++;
-                                    }
-                                    if (++pos == len) {
-                                        break _end;
-                                    }
-                                    c = data.charAt(start + pos);
-                                    continue;
-                                }
-                                switch (c) {
-                                    case '.':
-                                        currentLexState = LEXEMA_NUMBER_STARTED_MANTISSA_FRACTIONAL_PART;
-                                        break _next_char;
-                                    case 'e':
-                                    case 'E':
-                                        currentLexState = LEXEMA_NUMBER_STARTED_E;
-                                        break _next_char;
-                                    case 0x09:
-                                    case 0x0a:
-                                    case 0x0d:
-                                    case 0x20:
-                                    case '{':
-                                    case '}':
-                                    case '[':
-                                    case ']':
-                                    case ',':
-                                    case ':':
-                                        pos--;
-                                        currentLexState = LEXEMA_NUMBER_READY;
-                                        final int r = onNumber(lnr, currentLexPos);
-                                        if (r == 0) {
-                                            break _next_char;
-                                        }
-                                        if (r > 0) {
-                                            pos++;
-                                            break _end;
-                                        }
-                                        return null;
-                                    default:
-                                        error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
-                                        return null;
-                                }
-                            }
-                        }
-                        case LEXEMA_NUMBER_STARTED_MANTISSA_SIGN: {
-                            switch (c) {
-                                case '0':
-                                case '1':
-                                case '2':
-                                case '3':
-                                case '4':
-                                case '5':
-                                case '6':
-                                case '7':
-                                case '8':
-                                case '9':
-                                    number.setMantissa(c - '0');
-                                    currentLexState = LEXEMA_NUMBER_STARTED_MANTISSA_INTEGER_PART;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_NUMBER_STARTED_MANTISSA_FRACTIONAL_PART: {
-                            while (true) {
-                                if (c >= '0' && c <= '9') {
-                                    final long m = number.mantissa();
-                                    numberOverflow |= m > MAX_MANTISSA_BASE;
-                                    if (!numberOverflow) {
-                                        number.setMantissa(m * 10 + (c - '0'));
-                                        numberMantissaExp--;
-                                    }
-                                    if (++pos == len) {
-                                        break _end;
-                                    }
-                                    c = data.charAt(start + pos);
-                                    continue;
-                                }
-                                switch (c) {
-                                    case 'e':
-                                    case 'E':
-                                        currentLexState = LEXEMA_NUMBER_STARTED_E;
-                                        break _next_char;
-                                    case 0x09:
-                                    case 0x0a:
-                                    case 0x0d:
-                                    case 0x20:
-                                    case '{':
-                                    case '}':
-                                    case '[':
-                                    case ']':
-                                    case ',':
-                                    case ':':
-                                        pos--;
-                                        currentLexState = LEXEMA_NUMBER_READY;
-                                        final int r = onNumber(lnr, currentLexPos);
-                                        if (r == 0) {
-                                            break _next_char;
-                                        }
-                                        if (r > 0) {
-                                            pos++;
-                                            break _end;
-                                        }
-                                        return null;
-                                    default:
-                                        error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
-                                        return null;
-                                }
-                            }
-                        }
-                        case LEXEMA_NUMBER_STARTED_E: {
-                            switch (c) {
-                                case '+':
-                                    currentLexState = LEXEMA_NUMBER_STARTED_E_SIGN;
-                                    break _next_char;
-                                case '-':
-                                    numberMinuses = numberMinuses | 1;
-                                    currentLexState = LEXEMA_NUMBER_STARTED_E_SIGN;
-                                    break _next_char;
-                                case '0':
-                                case '1':
-                                case '2':
-                                case '3':
-                                case '4':
-                                case '5':
-                                case '6':
-                                case '7':
-                                case '8':
-                                case '9':
-                                    number.setExp(number.exp() * 10 + (c - '0'));
-                                    currentLexState = LEXEMA_NUMBER_STARTED_E_VALUE;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_NUMBER_STARTED_E_SIGN: {
-                            switch (c) {
-                                case '0':
-                                case '1':
-                                case '2':
-                                case '3':
-                                case '4':
-                                case '5':
-                                case '6':
-                                case '7':
-                                case '8':
-                                case '9':
-                                    number.setExp(number.exp() * 10 + (c - '0'));
-                                    currentLexState = LEXEMA_NUMBER_STARTED_E_VALUE;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_NUMBER_STARTED_E_VALUE: {
-                            switch (c) {
-                                case '0':
-                                case '1':
-                                case '2':
-                                case '3':
-                                case '4':
-                                case '5':
-                                case '6':
-                                case '7':
-                                case '8':
-                                case '9':
-                                    number.setExp(number.exp() * 10 + (c - '0'));
-                                    currentLexState = LEXEMA_NUMBER_STARTED_E_VALUE;
-                                    break _next_char;
-                                case 0x09:
-                                case 0x0a:
-                                case 0x0d:
-                                case 0x20:
-                                case '{':
-                                case '}':
-                                case '[':
-                                case ']':
-                                case ',':
-                                case ':':
-                                    pos--;
-                                    currentLexState = LEXEMA_NUMBER_READY;
-                                    final int r = onNumber(lnr, currentLexPos);
-                                    if (r == 0) {
-                                        break _next_char;
-                                    }
-                                    if (r > 0) {
-                                        pos++;
-                                        break _end;
-                                    }
-                                    return null;
-                                default:
-                                    error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
+    /* number value */
 
-                        /* 'true' value - the rest */
-                        case LEXEMA_TRUE_STARTED_T: {
-                            switch (c) {
-                                case 'r':
-                                    currentLexState = LEXEMA_TRUE_STARTED_TR;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_TRUE_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_TRUE_STARTED_TR: {
-                            switch (c) {
-                                case 'u':
-                                    currentLexState = LEXEMA_TRUE_STARTED_TRU;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_TRUE_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_TRUE_STARTED_TRU: {
-                            switch (c) {
-                                case 'e':
-                                    currentLexState = LEXEMA_TRUE_READY;
-                                    final int r = onTrue(lnr, currentLexPos);
-                                    if (r == 0) {
-                                        break _next_char;
-                                    }
-                                    if (r > 0) {
-                                        pos++;
-                                        break _end;
-                                    }
-                                    return null;
-                                default:
-                                    error(ERROR_TRUE_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
+    private void startNumber(final int pos, final long mantissa, final int minuses) {
+        number.setMantissa(mantissa);
+        number.setExp(0);
+        numberMantissaExp = 0;
+        numberMinuses = minuses;
+        numberOverflow = false;
+        currentLexemaPosition = pos;
+    }
 
-                        /* 'false' value - the rest */
-                        case LEXEMA_FALSE_STARTED_F: {
-                            switch (c) {
-                                case 'a':
-                                    currentLexState = LEXEMA_FALSE_STARTED_FA;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_FALSE_STARTED_FA: {
-                            switch (c) {
-                                case 'l':
-                                    currentLexState = LEXEMA_FALSE_STARTED_FAL;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_FALSE_STARTED_FAL: {
-                            switch (c) {
-                                case 's':
-                                    currentLexState = LEXEMA_FALSE_STARTED_FALS;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_FALSE_STARTED_FALS: {
-                            switch (c) {
-                                case 'e':
-                                    currentLexState = LEXEMA_FALSE_READY;
-                                    final int r = onFalse(lnr, currentLexPos);
-                                    if (r == 0) {
-                                        break _next_char;
-                                    }
-                                    if (r > 0) {
-                                        pos++;
-                                        break _end;
-                                    }
-                                    return null;
-                                default:
-                                    error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
+    private int continueNumberSign(final int pos, final char c) {
+        if (c >= '0' && c <= '9') {
+            number.setMantissa(c - '0');
+            currentLexemaState = LEXEMA_NUMBER_STARTED_MANTISSA_INTEGER_PART;
+            return pos + 1;
+        }
+        error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
+        return aborted(pos);
+    }
 
-                        /* 'null' value - the rest */
-                        case LEXEMA_NULL_STARTED_N: {
-                            switch (c) {
-                                case 'u':
-                                    currentLexState = LEXEMA_NULL_STARTED_NU;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_NULL_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_NULL_STARTED_NU: {
-                            switch (c) {
-                                case 'l':
-                                    currentLexState = LEXEMA_NULL_STARTED_NUL;
-                                    break _next_char;
-                                default:
-                                    error(ERROR_NULL_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        case LEXEMA_NULL_STARTED_NUL: {
-                            switch (c) {
-                                case 'l':
-                                    currentLexState = LEXEMA_NULL_READY;
-                                    final int r = onNull(lnr, currentLexPos);
-                                    if (r == 0) {
-                                        break _next_char;
-                                    }
-                                    if (r > 0) {
-                                        pos++;
-                                        break _end;
-                                    }
-                                    return null;
-                                default:
-                                    error(ERROR_NULL_EXPECTED_MESSAGE, pos);
-                                    return null;
-                            }
-                        }
-                        /* unknown state */
-                        default:
-                            error(ERROR_INTERNAL_UNEXPECTED_LEXEMA_ERROR_MESSAGE, pos);
-                            return null;
-                    }
+    private int continueNumberIntegerPart(final JsonParserListener lnr, final CharSequence data,
+                                          final int start, final int len, final int from) {
+        final MutableJsonNumber number = this.number;
+        for (int pos = readEightDigits(from, len); pos < len; pos++) {
+            final char c = data.charAt(start + pos);
+            if (c >= '0' && c <= '9') {
+                final long m = number.mantissa();
+                numberOverflow |= m > MAX_MANTISSA_BASE;
+                if (!numberOverflow) {
+                    number.setMantissa(m * 10 + (c - '0'));
+                } else {
+                    numberMantissaExp++;
                 }
-                pos++;
+                continue;
             }
-            return pos < len ? next : null;
-        } finally {
-            currentPos = pos;
-            currentLexemaState = currentLexState;
-            currentLexemaPosition = currentLexPos;
+            switch (c) {
+                case '.':
+                    currentLexemaState = LEXEMA_NUMBER_STARTED_MANTISSA_FRACTIONAL_PART;
+                    return pos + 1;
+                case 'e':
+                case 'E':
+                    currentLexemaState = LEXEMA_NUMBER_STARTED_E;
+                    return pos + 1;
+                default:
+                    return endNumber(lnr, pos, c);
+            }
+        }
+        return len;
+    }
+
+    private int continueNumberFractionalPart(final JsonParserListener lnr, final CharSequence data,
+                                             final int start, final int len, final int from) {
+        final MutableJsonNumber number = this.number;
+        final int digitsFrom = readEightDigits(from, len);
+        numberMantissaExp -= digitsFrom - from;
+        for (int pos = digitsFrom; pos < len; pos++) {
+            final char c = data.charAt(start + pos);
+            if (c >= '0' && c <= '9') {
+                final long m = number.mantissa();
+                numberOverflow |= m > MAX_MANTISSA_BASE;
+                if (!numberOverflow) {
+                    number.setMantissa(m * 10 + (c - '0'));
+                    numberMantissaExp--;
+                }
+                continue;
+            }
+            switch (c) {
+                case 'e':
+                case 'E':
+                    currentLexemaState = LEXEMA_NUMBER_STARTED_E;
+                    return pos + 1;
+                default:
+                    return endNumber(lnr, pos, c);
+            }
+        }
+        return len;
+    }
+
+    /**
+     * Reads the digits of the mantissa by 8 at once with SWAR (SIMD within a register) operations,
+     * while the data is a byte array, 8 digits remain in the data and the mantissa can't overflow.
+     * The rest of the digits is read one by one.
+     *
+     * @param from - position of the first digit
+     * @param len - length of the data
+     * @return position of the first char, which isn't read
+     */
+    private int readEightDigits(final int from, final int len) {
+        final byte[] array = currentBytes;
+        if (array == null || numberOverflow) {
+            return from;
+        }
+        final MutableJsonNumber number = this.number;
+        long m = number.mantissa();
+        int pos = from;
+        while (len - pos >= Long.BYTES && m <= MAX_EIGHT_DIGITS_MANTISSA) {
+            final long word = (long) JsonStructuralIndex.LONGS.get(array, currentBytesOffset + pos);
+            if (!isEightDigits(word)) {
+                break;
+            }
+            m = m * EIGHT_DIGITS_BASE + eightDigits(word);
+            pos += Long.BYTES;
+        }
+        number.setMantissa(m);
+        return pos;
+    }
+
+    private int continueNumberExp(final JsonParserListener lnr, final int pos, final char c, final int state) {
+        if (c >= '0' && c <= '9') {
+            number.setExp(number.exp() * 10 + (c - '0'));
+            currentLexemaState = LEXEMA_NUMBER_STARTED_E_VALUE;
+            return pos + 1;
+        }
+        if (state == LEXEMA_NUMBER_STARTED_E_VALUE) {
+            return endNumber(lnr, pos, c);
+        }
+        if (state == LEXEMA_NUMBER_STARTED_E && (c == '+' || c == '-')) {
+            if (c == '-') {
+                numberMinuses = numberMinuses | 1;
+            }
+            currentLexemaState = LEXEMA_NUMBER_STARTED_E_SIGN;
+            return pos + 1;
+        }
+        error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
+        return aborted(pos);
+    }
+
+    /**
+     * Completes the number, if the char terminates it.
+     *
+     * @param lnr - the listener
+     * @param pos - position of the char after the number
+     * @param c - the char after the number
+     * @return the result of a lexema method
+     */
+    private int endNumber(final JsonParserListener lnr, final int pos, final char c) {
+        switch (c) {
+            case 0x09:
+            case 0x0a:
+            case 0x0d:
+            case 0x20:
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case ',':
+            case ':':
+                currentLexemaState = LEXEMA_NUMBER_READY;
+                // the terminating char is parsed as usual
+                return result(onNumber(lnr, currentLexemaPosition, pos), pos - 1);
+            default:
+                error(ERROR_INCORRECT_NUMBER_MESSAGE, pos);
+                return aborted(pos);
+        }
+    }
+
+    /* 'true' value */
+
+    private int startTrue(final JsonParserListener lnr, final CharSequence data,
+                          final int start, final int len, final int pos) {
+        if (currentLexemaState > LEXEMA_NUMBER_READY) {
+            error(ERROR_TRUE_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        currentLexemaPosition = pos;
+        if (len - pos > 3) { // try to read the whole 'true' value
+            if (currentBytes != null
+                    ? (int) INTS.get(currentBytes, currentBytesOffset + pos) == TRUE_WORD
+                    : data.charAt(start + pos + 1) == 'r'
+                    && data.charAt(start + pos + 2) == 'u'
+                    && data.charAt(start + pos + 3) == 'e') {
+                currentLexemaState = LEXEMA_TRUE_READY;
+                return result(onTrue(lnr, pos), pos + 3);
+            }
+            error(ERROR_TRUE_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        currentLexemaState = LEXEMA_TRUE_STARTED_T;
+        return pos + 1;
+    }
+
+    private int continueTrue(final JsonParserListener lnr, final int pos, final char c, final int state) {
+        if (c != "true".charAt(state - LEXEMA_TRUE_STARTED_T + 1)) {
+            error(ERROR_TRUE_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        if (state < LEXEMA_TRUE_STARTED_TRU) {
+            currentLexemaState = state + 1;
+            return pos + 1;
+        }
+        currentLexemaState = LEXEMA_TRUE_READY;
+        return result(onTrue(lnr, currentLexemaPosition), pos);
+    }
+
+    /* 'false' value */
+
+    private int startFalse(final JsonParserListener lnr, final CharSequence data,
+                           final int start, final int len, final int pos) {
+        if (currentLexemaState > LEXEMA_NUMBER_READY) {
+            error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        currentLexemaPosition = pos;
+        if (len - pos > 4) { // try to read the whole 'false' value
+            if (currentBytes != null
+                    ? (int) INTS.get(currentBytes, currentBytesOffset + pos + 1) == FALSE_WORD
+                    : data.charAt(start + pos + 1) == 'a'
+                    && data.charAt(start + pos + 2) == 'l'
+                    && data.charAt(start + pos + 3) == 's'
+                    && data.charAt(start + pos + 4) == 'e') {
+                currentLexemaState = LEXEMA_FALSE_READY;
+                return result(onFalse(lnr, pos), pos + 4);
+            }
+            error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        currentLexemaState = LEXEMA_FALSE_STARTED_F;
+        return pos + 1;
+    }
+
+    private int continueFalse(final JsonParserListener lnr, final int pos, final char c, final int state) {
+        if (c != "false".charAt(state - LEXEMA_FALSE_STARTED_F + 1)) {
+            error(ERROR_FALSE_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        if (state < LEXEMA_FALSE_STARTED_FALS) {
+            currentLexemaState = state + 1;
+            return pos + 1;
+        }
+        currentLexemaState = LEXEMA_FALSE_READY;
+        return result(onFalse(lnr, currentLexemaPosition), pos);
+    }
+
+    /* 'null' value */
+
+    private int startNull(final JsonParserListener lnr, final CharSequence data,
+                          final int start, final int len, final int pos) {
+        if (currentLexemaState > LEXEMA_NUMBER_READY) {
+            error(ERROR_NULL_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        currentLexemaPosition = pos;
+        if (len - pos > 3) { // try to read the whole 'null' value
+            if (currentBytes != null
+                    ? (int) INTS.get(currentBytes, currentBytesOffset + pos) == NULL_WORD
+                    : data.charAt(start + pos + 1) == 'u'
+                    && data.charAt(start + pos + 2) == 'l'
+                    && data.charAt(start + pos + 3) == 'l') {
+                currentLexemaState = LEXEMA_NULL_READY;
+                return result(onNull(lnr, pos), pos + 3);
+            }
+            error(ERROR_NULL_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
+        }
+        currentLexemaState = LEXEMA_NULL_STARTED_N;
+        return pos + 1;
+    }
+
+    private int continueNull(final JsonParserListener lnr, final int pos, final char c, final int state) {
+        if (c != "null".charAt(state - LEXEMA_NULL_STARTED_N + 1)) {
+            error(ERROR_NULL_EXPECTED_MESSAGE, pos);
+            return aborted(pos);
         }
+        if (state < LEXEMA_NULL_STARTED_NUL) {
+            currentLexemaState = state + 1;
+            return pos + 1;
+        }
+        currentLexemaState = LEXEMA_NULL_READY;
+        return result(onNull(lnr, currentLexemaPosition), pos);
     }
 
     /**
@@ -1243,7 +1487,9 @@ public final class JsonParser {
             if (error == null) {
                 onEoj(lnr, currentLexemaPosition);
             }
-            lnr.onJsonEnded();
+            if (!recordStream || scopeStackDepth > 0) {
+                lnr.onJsonEnded();
+            }
         }
         currentLexemaPosition = RESET_REQUIRED;
         return this;
@@ -1258,20 +1504,84 @@ public final class JsonParser {
     private void doReset() {
         currentLexemaState = LEXEMA_READY;
         clearScope();
-        pushScope(EXPRESSION_INITIAL);
+        if (!recordStream) {
+            pushScope(EXPRESSION_INITIAL);
+        }
+        recordIndex = 0;
+        recordSkipping = false;
+        recordPosition = 0;
+        recordLineStarted = false;
+        skipRequested = false;
+        wideNumberContinued = false;
+        capturing = false;
         error = null;
     }
 
+    private int startRecord(final JsonParserListener lnr, final int position) {
+        recordPosition = position;
+        recordLineStarted = false;
+        pushScope(EXPRESSION_INITIAL);
+        lnr.onJsonStarted();
+        return EXPRESSION_INITIAL;
+    }
+
+    private void endRecord(final JsonParserListener lnr) {
+        currentLexemaState = LEXEMA_READY; // the next record can start with any lexema, e.g. true after null
+        recordIndex++;
+        lnr.onJsonEnded();
+    }
+
     private void error(final String error, final int position) {
         final JsonParserListener lnr = listener;
 
         assert lnr != null;
 
+        if (recordStream && scopeStackDepth == 0) {
+            startRecord(lnr, position);
+        }
         this.error = error;
         this.errorPosition = position;
         lnr.onError(error, position);
     }
 
+    private boolean onNumberValue(final JsonParserListener lnr) {
+        final MutableJsonNumber n;
+        if (wideNumbers) {
+            final MutableJsonWideNumber w = wideNumber;
+            w.set(number.mantissa(), number.exp());
+            if (numberOverflow) {
+                w.setWideFromText();
+            } else {
+                w.setWideFromMantissa();
+            }
+            n = w;
+        } else {
+            n = number;
+        }
+        if (doubleNumbers) {
+            return lnr.onNumberValue(n, numberOverflow, n.doubleValue());
+        }
+        return lnr.onNumberValue(n, numberOverflow);
+    }
+
+    /**
+     * Appends the chars of a number's lexema from the current data to the text of the wide number.
+     *
+     * @param lexemaPosition - position of the lexema, if it starts in the current data
+     * @param endPosition - position after the last char of the lexema in the current data
+     */
+    private void appendWideNumberText(final int lexemaPosition, final int endPosition) {
+        final MutableJsonWideNumber w = wideNumber;
+        final int from;
+        if (wideNumberContinued) {
+            from = 0;
+        } else {
+            w.clearText();
+            from = lexemaPosition;
+        }
+        w.appendText(currentData, currentStart + from, currentStart + endPosition);
+    }
+
     private static void setNumber(
             final MutableJsonNumber number,
             final int numberMinuses,
@@ -1286,7 +1596,12 @@ public final class JsonParser {
     }
 
     private int onCurlyBracketLeft(final JsonParserListener lnr, final int lexemaPosition) {
-        final int currentScope = peekScope();
+        skipRequested = false;
+
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         switch (currentScope) {
             case EXPRESSION_INITIAL: {
@@ -1330,7 +1645,7 @@ public final class JsonParser {
             case EXPRESSION_OBJECT_STARTED:
             case EXPRESSION_OBJECT_STARTED_MEMBER_COMMA_DELIMITER: {
                 final boolean r = lnr.onObjectEnded();
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1338,7 +1653,7 @@ public final class JsonParser {
             }
             case EXPRESSION_OBJECT_STARTED_MEMBER_VALUE: {
                 final boolean r = lnr.onObjectEnded();
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1352,7 +1667,12 @@ public final class JsonParser {
     }
 
     private int onBoxBracketLeft(final JsonParserListener lnr, final int lexemaPosition) {
-        final int currentScope = peekScope();
+        skipRequested = false;
+
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         switch (currentScope) {
             case EXPRESSION_INITIAL: {
@@ -1396,7 +1716,7 @@ public final class JsonParser {
             case EXPRESSION_ARRAY_STARTED:
             case EXPRESSION_ARRAY_STARTED_COMMA_DELIMITER: {
                 final boolean r = lnr.onArrayEnded();
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1404,7 +1724,7 @@ public final class JsonParser {
             }
             case EXPRESSION_ARRAY_STARTED_VALUE: {
                 final boolean r = lnr.onArrayEnded();
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1449,14 +1769,19 @@ public final class JsonParser {
     }
 
     private int onStringReady(final JsonParserListener lnr, final int lexemaPosition) {
-        final int currentScope = peekScope();
+        skipRequested = false;
+
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         final JsonStringBuilder value = string;
 
         switch (currentScope) {
             case EXPRESSION_INITIAL: {
                 final boolean r = lnr.onStringValue(value);
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1464,7 +1789,10 @@ public final class JsonParser {
             }
             case EXPRESSION_OBJECT_STARTED:
             case EXPRESSION_OBJECT_STARTED_MEMBER_COMMA_DELIMITER: {
-                final boolean r = lnr.onObjectMember(value);
+                final MemberNameDictionary names = memberNames;
+                final boolean r = names == null
+                        ? lnr.onObjectMember(value)
+                        : lnr.onObjectMember(value, names.id(value));
                 if (notifyObjectMemberNameString) {
                     lnr.onStringValue(value);
                 }
@@ -1498,22 +1826,29 @@ public final class JsonParser {
         return 0;
     }
 
-    private int onNumber(final JsonParserListener lnr, final int lexemaPosition) {
+    private int onNumber(final JsonParserListener lnr, final int lexemaPosition, final int endPosition) {
         setNumber(number, numberMinuses, numberMantissaExp);
+        if (wideNumbers) {
+            appendWideNumberText(lexemaPosition, endPosition);
+            wideNumberContinued = false;
+        }
 
-        final int currentScope = peekScope();
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         switch (currentScope) {
             case EXPRESSION_INITIAL: {
-                final boolean r = lnr.onNumberValue(number, numberOverflow);
-                popScope();
+                final boolean r = onNumberValue(lnr);
+                popScope(lnr);
                 if (r) {
                     break;
                 }
                 return 1;
             }
             case EXPRESSION_OBJECT_STARTED_MEMBER_NAME_VALUE_COLON_DELIMITER: {
-                final boolean r = lnr.onNumberValue(number, numberOverflow);
+                final boolean r = onNumberValue(lnr);
                 replaceScope(EXPRESSION_OBJECT_STARTED_MEMBER_VALUE);
                 if (r) {
                     break;
@@ -1522,7 +1857,7 @@ public final class JsonParser {
             }
             case EXPRESSION_ARRAY_STARTED:
             case EXPRESSION_ARRAY_STARTED_COMMA_DELIMITER: {
-                final boolean r = lnr.onNumberValue(number, numberOverflow);
+                final boolean r = onNumberValue(lnr);
                 replaceScope(EXPRESSION_ARRAY_STARTED_VALUE);
                 if (r) {
                     break;
@@ -1537,12 +1872,15 @@ public final class JsonParser {
     }
 
     private int onTrue(final JsonParserListener lnr, final int lexemaPosition) {
-        final int currentScope = peekScope();
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         switch (currentScope) {
             case EXPRESSION_INITIAL: {
                 final boolean r = lnr.onTrueValue();
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1573,12 +1911,15 @@ public final class JsonParser {
     }
 
     private int onFalse(final JsonParserListener lnr, final int lexemaPosition) {
-        final int currentScope = peekScope();
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         switch (currentScope) {
             case EXPRESSION_INITIAL: {
                 final boolean r = lnr.onFalseValue();
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1609,12 +1950,15 @@ public final class JsonParser {
     }
 
     private int onNull(final JsonParserListener lnr, final int lexemaPosition) {
-        final int currentScope = peekScope();
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         switch (currentScope) {
             case EXPRESSION_INITIAL: {
                 final boolean r = lnr.onNullValue();
-                popScope();
+                popScope(lnr);
                 if (r) {
                     break;
                 }
@@ -1645,7 +1989,10 @@ public final class JsonParser {
     }
 
     private int onEoj(final JsonParserListener lnr, final int lexemaPosition) {
-        final int currentScope = peekScope();
+        int currentScope = peekScope();
+        if (currentScope < 0 && recordStream && currentLexemaState < LEXEMA_READY) {
+            currentScope = startRecord(lnr, lexemaPosition);
+        }
 
         switch (currentScope) {
             case -1: // no scope
@@ -1686,8 +2033,9 @@ public final class JsonParser {
                     case LEXEMA_NUMBER_STARTED_MANTISSA_FRACTIONAL_PART:
                     case LEXEMA_NUMBER_STARTED_E_VALUE:
                         setNumber(number, numberMinuses, numberMantissaExp); // try to apply the number
-                        lnr.onNumberValue(number, numberOverflow);
-                        popScope();
+                        wideNumberContinued = false; // the text is appended at the end of the data
+                        onNumberValue(lnr);
+                        popScope(lnr);
                         break;
                 }
                 break;
@@ -1698,6 +2046,244 @@ public final class JsonParser {
         return 0;
     }
 
+    private int startSkipping(final int lexemaState) {
+        skipRequested = false;
+
+        switch (peekScope()) {
+            case EXPRESSION_OBJECT_STARTED_MEMBER_NAME:
+                replaceScope(EXPRESSION_OBJECT_STARTED_MEMBER_VALUE); // the value is consumed by the skipping
+                skippingToComma = true;
+                break;
+            case EXPRESSION_OBJECT_STARTED:
+            case EXPRESSION_ARRAY_STARTED:
+                skippingToComma = false;
+                break;
+            default:
+                return lexemaState;
+        }
+        skippingDepth = 0;
+        skippingString = 0;
+        capturing = captureRequested;
+        captureFrom = -1;
+        captureLength = 0;
+        return LEXEMA_SKIPPING;
+    }
+
+    /**
+     * Notifies the captured value, which is completed in the current data.
+     *
+     * @param lnr - the listener
+     * @param endPosition - position of the char, which terminates the value, in the current data
+     * @return true to continue the parsing, false to stop
+     */
+    private boolean onRawValue(final JsonParserListener lnr, final int endPosition) {
+        capturing = false;
+        final CharSequence data = currentData;
+        final int start = currentStart;
+        if (captureLength > 0) { // the value started in one of the previous data
+            appendCaptured(data, start + captureFrom, start + endPosition);
+            final CharSequence captured = this.captured;
+            int length = captureLength;
+            while (isWhitespace(captured.charAt(length - 1))) {
+                length--;
+            }
+            captureLength = 0;
+            return lnr.onRawValue(captured, 0, length);
+        }
+        final int from = start + captureFrom;
+        int to = start + endPosition;
+        while (to > from && isWhitespace(data.charAt(to - 1))) {
+            to--;
+        }
+        if (to == from) { // the content of an object / array is empty
+            return true;
+        }
+        return lnr.onRawValue(data, from, to - from);
+    }
+
+    /**
+     * Appends chars of the captured value to the buffer. The bytes of a {@link Utf8CharSequence}
+     * are kept as bytes, so the buffer is notified as a {@link Utf8CharSequence} also.
+     *
+     * @param data - the data parsed
+     * @param from - index of the first char to append
+     * @param to - index after the last char to append
+     */
+    private void appendCaptured(final CharSequence data, final int from, final int to) {
+        final int length = captureLength;
+        final int newLength = length + to - from;
+        if (data instanceof Utf8CharSequence) {
+            ByteArrayCharSequence captured = capturedBytes;
+            if (captured == null) {
+                captured = capturedBytes = new ByteArrayCharSequence();
+            }
+            byte[] array = captured.array();
+            if (array == null || newLength > array.length) {
+                final byte[] newArray = new byte[Math.max(newLength, length << 1)];
+                if (array != null) {
+                    System.arraycopy(array, 0, newArray, 0, length);
+                }
+                array = newArray;
+            }
+            for (int i = from, j = length; i < to; i++, j++) {
+                array[j] = (byte) data.charAt(i);
+            }
+            captured.set(array, 0, newLength);
+            this.captured = captured;
+        } else {
+            CharArrayCharSequence captured = capturedChars;
+            if (captured == null || newLength > captured.array().length) {
+                final char[] newArray = new char[Math.max(newLength, length << 1)];
+                if (captured != null) {
+                    System.arraycopy(captured.array(), 0, newArray, 0, length);
+                }
+                captured = capturedChars = new CharArrayCharSequence(newArray, length);
+            }
+            final char[] array = captured.array();
+            for (int i = from, j = length; i < to; i++, j++) {
+                array[j] = data.charAt(i);
+            }
+            captured.setLength(newLength);
+            this.captured = captured;
+        }
+        captureLength = newLength;
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == 0x09 || c == 0x0a || c == 0x0d || c == 0x20;
+    }
+
+    /**
+     * Skips whitespaces. If the data is a byte array, a run of whitespaces (like an indentation)
+     * is skipped by 8 bytes at once while 8 bytes remain in the data.
+     *
+     * @param data - the data parsed
+     * @param start - index of the first char of the data
+     * @param len - length of the data
+     * @param from - position to skip from
+     * @return position of the first char, which isn't a whitespace, or the length of the data
+     */
+    private int skipWhitespaces(final CharSequence data, final int start, final int len, final int from) {
+        if (from == len || !isWhitespace(data.charAt(start + from))) { // a single whitespace
+            return from;
+        }
+        int pos = from + 1;
+        final byte[] array = currentBytes;
+        if (array != null) {
+            for (; len - pos >= Long.BYTES; pos += Long.BYTES) {
+                final long word = (long) JsonStructuralIndex.LONGS.get(array, currentBytesOffset + pos);
+                final long others = JsonStructuralIndex.notEqual(word, ' ')
+                        & JsonStructuralIndex.notEqual(word, '\n')
+                        & JsonStructuralIndex.notEqual(word, '\r')
+                        & JsonStructuralIndex.notEqual(word, '\t')
+                        & JsonStructuralIndex.HIGH_BITS;
+                if (others != 0) {
+                    return pos + (Long.numberOfTrailingZeros(others) >>> 3);
+                }
+            }
+        }
+        while (pos < len && isWhitespace(data.charAt(start + pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Checks if all the bytes of the word are ASCII digits.
+     *
+     * @param word - 8 bytes
+     * @return true if the bytes are digits
+     */
+    private static boolean isEightDigits(final long word) {
+        return ((word & 0xf0f0f0f0f0f0f0f0L)
+                | (((word + 0x0606060606060606L) & 0xf0f0f0f0f0f0f0f0L) >>> 4)) == 0x3333333333333333L;
+    }
+
+    /**
+     * Converts 8 ASCII digits to the number, multiplying the pairs, then the quadruples of the digits.
+     *
+     * @param word - 8 digits, the first one is in the low byte
+     * @return the number
+     */
+    private static int eightDigits(final long word) {
+        long v = word - 0x3030303030303030L;
+        v = v * 10 + (v >>> 8); // the pairs of the digits are in the even bytes
+        v = ((v & 0x000000ff000000ffL) * 0x000f424000000064L // 100 + (1000000 << 32)
+                + ((v >>> 16) & 0x000000ff000000ffL) * 0x0000271000000001L) >>> 32; // 1 + (10000 << 32)
+        return (int) v;
+    }
+
+    /**
+     * Packs the ASCII chars of a literal to the word as they are laid out in a byte array.
+     *
+     * @param chars - 4 chars
+     * @return the word
+     */
+    private static int word(final String chars) {
+        return chars.charAt(0) | chars.charAt(1) << 8 | chars.charAt(2) << 16 | chars.charAt(3) << 24;
+    }
+
+    /**
+     * Skips the chars of a value until the end of the value or the end of the data.
+     *
+     * @param data - the data parsed
+     * @param start - index of the first char of the data
+     * @param pos - position to skip from
+     * @param len - length of the data
+     * @return position of the char, which terminates the skipped value, or the length
+     * of the data if the value continues
+     */
+    private int skip(final CharSequence data, final int start, final int pos, final int len) {
+        if (structuralIndexed && skippingDepth == 0 && skippingString == 0) {
+            final int end = structuralIndex.skipEnd(data, start, pos, skippingToComma);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        int depth = skippingDepth;
+        int str = skippingString;
+        int p = pos;
+        for (; p < len; p++) {
+            final char c = data.charAt(start + p);
+            if (str != 0) {
+                if (str == SKIPPING_STRING_ESCAPE) {
+                    str = SKIPPING_STRING;
+                } else if (c == '\\') {
+                    str = SKIPPING_STRING_ESCAPE;
+                } else if (c == '"') {
+                    str = 0;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"':
+                    str = SKIPPING_STRING;
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth == 0) {
+                        return p;
+                    }
+                    depth--;
+                    break;
+                case ',':
+                    if (depth == 0 && skippingToComma) {
+                        return p;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        skippingDepth = depth;
+        skippingString = str;
+        return p;
+    }
+
     private void clearScope() {
         scopeStackDepth = 0;
     }
@@ -1720,6 +2306,13 @@ public final class JsonParser {
         return scopeStack[--scopeStackDepth];
     }
 
+    private void popScope(final JsonParserListener lnr) {
+        popScope();
+        if (scopeStackDepth == 0 && recordStream) {
+            endRecord(lnr);
+        }
+    }
+
     private int peekScope() {
         if (scopeStackDepth < 1) {
             return -1;
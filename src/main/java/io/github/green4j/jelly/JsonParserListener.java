@@ -30,4 +30,18 @@ public interface JsonParserListener extends JsonEventListener {
     void onError(String error, int position);
 
     void onJsonEnded();
+
+    /**
+     * Notifies about a value captured with {@link JsonParser#captureValue()}.
+     * The chars are valid until the method returns.
+     *
+     * @param data - chars of the value as they are in the JSON, a {@link Utf8CharSequence}
+     *             if the JSON is parsed from bytes
+     * @param start - index of the first char of the value
+     * @param len - number of the chars
+     * @return true to continue the parsing, false to stop
+     */
+    default boolean onRawValue(CharSequence data, int start, int len) {
+        return true;
+    }
 }
@@ -0,0 +1,424 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.util.Arrays;
+
+/**
+ * A listener, which selects values of a JSON document with a set of JSONPath-like expressions
+ * compiled once, and passes the values matched to a {@link JsonPathListener}.
+ * The following syntax is supported:
+ * <pre>
+ * $               - the root value
+ * .name, ['name'] - a member of an object
+ * .*, ['*']       - any member of an object
+ * [n]             - an item of an array with the index n
+ * [*]             - any item of an array
+ * </pre>
+ * For example, {@code $.data[*].price} or {@code $['order book'].bids[0][1]}.
+ * Only scalar values (strings, numbers, booleans and nulls) are notified, an object or an array
+ * matched isn't. Up to 64 expressions are supported, the current path is tracked with primitive
+ * stacks of bit masks, so the extraction doesn't allocate.
+ * If the parser is set with {@link #setParser(JsonParser)}, the values, which can't match any path,
+ * are skipped by the parser with {@link JsonParser#skipValue()}.
+ */
+public final class JsonPathExtractor implements JsonParserListener {
+    public static final int MAX_NUMBER_OF_PATHS = Long.SIZE;
+
+    private static final int STEP_MEMBER = 0;
+    private static final int STEP_ANY_MEMBER = 1;
+    private static final int STEP_INDEX = 2;
+    private static final int STEP_ANY_INDEX = 3;
+
+    private final String[] paths;
+    private final JsonPathListener listener;
+
+    private final MemberNameDictionary memberNames = new MemberNameDictionary();
+
+    private JsonParser parser;
+
+    private final long allPaths;
+    private final long[] exactPaths; // per level: paths matched completely at the level
+    private final long[] longerPaths; // per level: paths, which continue deeper the level
+    private final long[] anyMemberPaths; // per level: paths with a .* step
+    private final long[] namedMemberPaths; // per level: paths with a .name step
+    private final long[][] memberPaths; // per level and member name id: paths with the .name step
+    private final long[] anyIndexPaths; // per level: paths with a [*] step
+    private final long[] indexPaths; // per level: paths with a [n] step
+    private final int[][] indices; // per path and level: n of the [n] step
+
+    private long[] scopePaths = new long[8];
+    private int[] scopeIndices = new int[8];
+    private boolean[] scopeArrays = new boolean[8];
+    private int depth;
+    private long memberValuePaths;
+
+    public JsonPathExtractor(final JsonPathListener listener, final String... paths) {
+        if (paths.length == 0) {
+            throw new IllegalArgumentException("No paths");
+        }
+        if (paths.length > MAX_NUMBER_OF_PATHS) {
+            throw new IllegalArgumentException("Too many paths: " + paths.length
+                    + ", max: " + MAX_NUMBER_OF_PATHS);
+        }
+        this.listener = listener;
+        this.paths = paths.clone();
+
+        final int[][] kinds = new int[paths.length][];
+        final int[][] args = new int[paths.length][];
+        int maxLength = 0;
+        for (int p = 0; p < paths.length; p++) {
+            final Steps steps = parse(paths[p]);
+            kinds[p] = Arrays.copyOf(steps.kinds, steps.length);
+            args[p] = Arrays.copyOf(steps.args, steps.length);
+            maxLength = Math.max(maxLength, steps.length);
+        }
+
+        allPaths = paths.length == MAX_NUMBER_OF_PATHS ? -1L : (1L << paths.length) - 1;
+        exactPaths = new long[maxLength + 1];
+        longerPaths = new long[maxLength + 1];
+        anyMemberPaths = new long[maxLength];
+        namedMemberPaths = new long[maxLength];
+        memberPaths = new long[maxLength][memberNames.size()];
+        anyIndexPaths = new long[maxLength];
+        indexPaths = new long[maxLength];
+        indices = args;
+
+        for (int p = 0; p < paths.length; p++) {
+            final long bit = 1L << p;
+            final int[] pathKinds = kinds[p];
+            exactPaths[pathKinds.length] |= bit;
+            for (int level = 0; level < pathKinds.length; level++) {
+                longerPaths[level] |= bit;
+                switch (pathKinds[level]) {
+                    case STEP_MEMBER:
+                        namedMemberPaths[level] |= bit;
+                        memberPaths[level][args[p][level]] |= bit;
+                        break;
+                    case STEP_ANY_MEMBER:
+                        anyMemberPaths[level] |= bit;
+                        break;
+                    case STEP_INDEX:
+                        indexPaths[level] |= bit;
+                        break;
+                    default:
+                        anyIndexPaths[level] |= bit;
+                        break;
+                }
+            }
+        }
+    }
+
+    public int numberOfPaths() {
+        return paths.length;
+    }
+
+    public String path(final int path) {
+        return paths[path];
+    }
+
+    public JsonPathListener listener() {
+        return listener;
+    }
+
+    public JsonParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Sets the parser, which notifies this extractor, to skip the values not matched.
+     *
+     * @param parser - the parser or null to notify about all the values
+     * @return this
+     */
+    public JsonPathExtractor setParser(final JsonParser parser) {
+        this.parser = parser;
+        return this;
+    }
+
+    @Override
+    public void onJsonStarted() {
+        depth = 0;
+        memberValuePaths = 0;
+    }
+
+    @Override
+    public void onError(final String error, final int position) {
+    }
+
+    @Override
+    public void onJsonEnded() {
+    }
+
+    @Override
+    public boolean onObjectStarted() {
+        pushScope(valuePaths(), false);
+        return true;
+    }
+
+    @Override
+    public boolean onObjectMember(final CharSequence name) {
+        final int level = depth - 1;
+        final long parentPaths = scopePaths[level];
+        long result = 0;
+        if (parentPaths != 0) {
+            result = parentPaths & anyMemberPaths[level];
+            if ((parentPaths & namedMemberPaths[level]) != 0) {
+                final int id = memberNames.id(name);
+                if (id != MemberNameDictionary.NOT_FOUND) {
+                    result |= parentPaths & memberPaths[level][id];
+                }
+            }
+        }
+        memberValuePaths = result;
+        if (result == 0 && parser != null) {
+            parser.skipValue();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onObjectEnded() {
+        depth--;
+        return true;
+    }
+
+    @Override
+    public boolean onArrayStarted() {
+        pushScope(valuePaths(), true);
+        return true;
+    }
+
+    @Override
+    public boolean onArrayEnded() {
+        depth--;
+        return true;
+    }
+
+    @Override
+    public boolean onStringValue(final CharSequence data) {
+        long matched = matchedPaths();
+        while (matched != 0) {
+            final int path = Long.numberOfTrailingZeros(matched);
+            matched &= matched - 1;
+            if (!listener.onStringValue(path, data)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onNumberValue(final JsonNumber number) {
+        long matched = matchedPaths();
+        while (matched != 0) {
+            final int path = Long.numberOfTrailingZeros(matched);
+            matched &= matched - 1;
+            if (!listener.onNumberValue(path, number.mantissa(), number.exp())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onTrueValue() {
+        return onBooleanValue(true);
+    }
+
+    @Override
+    public boolean onFalseValue() {
+        return onBooleanValue(false);
+    }
+
+    @Override
+    public boolean onNullValue() {
+        long matched = matchedPaths();
+        while (matched != 0) {
+            final int path = Long.numberOfTrailingZeros(matched);
+            matched &= matched - 1;
+            if (!listener.onNullValue(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean onBooleanValue(final boolean value) {
+        long matched = matchedPaths();
+        while (matched != 0) {
+            final int path = Long.numberOfTrailingZeros(matched);
+            matched &= matched - 1;
+            if (!listener.onBooleanValue(path, value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long matchedPaths() {
+        final long result = valuePaths();
+        return depth < exactPaths.length ? result & exactPaths[depth] : 0;
+    }
+
+    /**
+     * Returns the paths, which match the path of the current value.
+     *
+     * @return the bit mask of the paths
+     */
+    private long valuePaths() {
+        if (depth == 0) {
+            return allPaths;
+        }
+        final int level = depth - 1;
+        if (!scopeArrays[level]) {
+            return memberValuePaths;
+        }
+        final int index = scopeIndices[level]++;
+        final long parentPaths = scopePaths[level];
+        if (parentPaths == 0) {
+            return 0;
+        }
+        long result = parentPaths & anyIndexPaths[level];
+        long candidates = parentPaths & indexPaths[level];
+        while (candidates != 0) {
+            final int path = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (indices[path][level] == index) {
+                result |= 1L << path;
+            }
+        }
+        return result;
+    }
+
+    private void pushScope(final long paths, final boolean array) {
+        final int level = depth;
+        if (level == scopePaths.length) {
+            scopePaths = Arrays.copyOf(scopePaths, level << 1);
+            scopeIndices = Arrays.copyOf(scopeIndices, level << 1);
+            scopeArrays = Arrays.copyOf(scopeArrays, level << 1);
+        }
+        final long scope = level < longerPaths.length ? paths & longerPaths[level] : 0;
+        scopePaths[level] = scope;
+        scopeIndices[level] = 0;
+        scopeArrays[level] = array;
+        depth = level + 1;
+        if (scope == 0 && parser != null) {
+            parser.skipValue();
+        }
+    }
+
+    private Steps parse(final String path) {
+        final Steps steps = new Steps();
+        final int len = path.length();
+        if (len == 0 || path.charAt(0) != '$') {
+            throw incorrectPath(path, 0);
+        }
+        int pos = 1;
+        while (pos < len) {
+            final char c = path.charAt(pos);
+            if (c == '.') {
+                final int start = ++pos;
+                while (pos < len && path.charAt(pos) != '.' && path.charAt(pos) != '[') {
+                    pos++;
+                }
+                if (pos == start) {
+                    throw incorrectPath(path, pos);
+                }
+                if (pos - start == 1 && path.charAt(start) == '*') {
+                    steps.add(STEP_ANY_MEMBER, 0);
+                } else {
+                    steps.add(STEP_MEMBER, memberNames.register(path.substring(start, pos)));
+                }
+                continue;
+            }
+            if (c != '[' || ++pos == len) {
+                throw incorrectPath(path, pos);
+            }
+            final char q = path.charAt(pos);
+            if (q == '\'' || q == '"') {
+                final StringBuilder name = new StringBuilder();
+                pos++;
+                while (pos < len && path.charAt(pos) != q) {
+                    char n = path.charAt(pos++);
+                    if (n == '\\' && pos < len) {
+                        n = path.charAt(pos++);
+                    }
+                    name.append(n);
+                }
+                if (pos == len) {
+                    throw incorrectPath(path, pos);
+                }
+                pos++;
+                if (name.length() == 1 && name.charAt(0) == '*') {
+                    steps.add(STEP_ANY_MEMBER, 0);
+                } else {
+                    steps.add(STEP_MEMBER, memberNames.register(name));
+                }
+            } else if (q == '*') {
+                pos++;
+                steps.add(STEP_ANY_INDEX, 0);
+            } else {
+                final int start = pos;
+                long index = 0;
+                while (pos < len && path.charAt(pos) >= '0' && path.charAt(pos) <= '9') {
+                    index = index * 10 + (path.charAt(pos++) - '0');
+                    if (index > Integer.MAX_VALUE) {
+                        throw incorrectPath(path, start);
+                    }
+                }
+                if (pos == start) {
+                    throw incorrectPath(path, pos);
+                }
+                steps.add(STEP_INDEX, (int) index);
+            }
+            if (pos == len || path.charAt(pos) != ']') {
+                throw incorrectPath(path, pos);
+            }
+            pos++;
+        }
+        return steps;
+    }
+
+    private static IllegalArgumentException incorrectPath(final String path, final int position) {
+        return new IllegalArgumentException("Incorrect path '" + path + "' at the position " + position);
+    }
+
+    private static final class Steps {
+        int[] kinds = new int[8];
+        int[] args = new int[8];
+        int length;
+
+        void add(final int kind, final int arg) {
+            if (length == kinds.length) {
+                kinds = Arrays.copyOf(kinds, length << 1);
+                args = Arrays.copyOf(args, length << 1);
+            }
+            kinds[length] = kind;
+            args[length] = arg;
+            length++;
+        }
+    }
+}
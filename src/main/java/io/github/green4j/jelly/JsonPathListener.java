@@ -0,0 +1,66 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * Receives the values selected by a {@link JsonPathExtractor}. The path argument
+ * is the index of the matched expression in the order the expressions were passed to the extractor.
+ * All the callbacks return true to continue the parsing, false to stop it
+ * (see {@link JsonParser.Next}).
+ */
+public interface JsonPathListener {
+
+    default boolean onStringValue(int path, CharSequence value) {
+        return true;
+    }
+
+    /**
+     * Notifies about a number value. The default implementation delegates integer numbers
+     * (with zero exponent) to {@link #onLongValue(int, long)}, other numbers are ignored.
+     *
+     * @param path - index of the matched expression
+     * @param mantissa - mantissa of the number
+     * @param exp - exponent of the number
+     * @return true to continue the parsing, false to stop
+     */
+    default boolean onNumberValue(int path, long mantissa, int exp) {
+        if (exp == 0) {
+            return onLongValue(path, mantissa);
+        }
+        return true;
+    }
+
+    default boolean onLongValue(int path, long value) {
+        return true;
+    }
+
+    default boolean onBooleanValue(int path, boolean value) {
+        return true;
+    }
+
+    default boolean onNullValue(int path) {
+        return true;
+    }
+}
@@ -0,0 +1,356 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * Pull-style facade of the {@link JsonParser}: the tokens are read one by one
+ * with {@link #nextToken()} instead of being pushed to a listener. The facade sets its own
+ * listener to the parser, which stops the parsing after every event (see {@link JsonParser.Next}),
+ * so the tokens are produced by the same lexer, part by part, without any allocation.
+ * <p>
+ * The JSON is passed by parts with {@code feed} methods. A part can be fed when {@link #nextToken()}
+ * has returned {@link #NEED_MORE_INPUT}, i.e. all the tokens of the previous part are read.
+ * The end of the JSON is marked with {@link #endOfInput()}, the tokens completed by the end
+ * (like a top-level number) are returned, then {@link #END_OF_JSON}. The next part fed after that
+ * starts a new JSON document.
+ * <p>
+ * The chars of {@link #currentString()} and the number of {@link #currentNumber()} are valid until
+ * the next call of {@link #nextToken()}; with a {@link FlyweightStringBuilder} the chars refer to
+ * the part fed, so the part mustn't be changed until {@link #NEED_MORE_INPUT} is returned.
+ * <p>
+ * An error stops the parsing: {@link #ERROR} is returned until {@link #reset()}.
+ * The recovery of the record-stream mode (see {@link JsonParser#setSkipMalformedRecords(boolean)})
+ * isn't supported.
+ */
+public final class JsonPullParser {
+    public static final int NEED_MORE_INPUT = 0;
+    public static final int START_OBJECT = NEED_MORE_INPUT + 1;
+    public static final int MEMBER_NAME = START_OBJECT + 1;
+    public static final int END_OBJECT = MEMBER_NAME + 1;
+    public static final int START_ARRAY = END_OBJECT + 1;
+    public static final int END_ARRAY = START_ARRAY + 1;
+    public static final int STRING = END_ARRAY + 1;
+    public static final int NUMBER = STRING + 1;
+    public static final int TRUE = NUMBER + 1;
+    public static final int FALSE = TRUE + 1;
+    public static final int NULL = FALSE + 1;
+    public static final int END_OF_JSON = NULL + 1;
+    public static final int ERROR = END_OF_JSON + 1;
+
+    private final Tokens tokens = new Tokens();
+    private final JsonParser parser;
+
+    private JsonParser.Next next;
+    private CharSequence chars;
+    private byte[] bytes;
+    private int start;
+    private int len;
+    private boolean endOfInput;
+    private boolean endOfJson;
+    private int token = NEED_MORE_INPUT;
+
+    public JsonPullParser() {
+        this(new JsonParser());
+    }
+
+    public JsonPullParser(final JsonStringBuilder stringBuilder) {
+        this(new JsonParser(stringBuilder));
+    }
+
+    /**
+     * Creates a facade of the parser. The listener of the parser is replaced,
+     * the rest of the settings (like {@link JsonParser#setWideNumbers(boolean)}) are kept.
+     *
+     * @param parser - the parser
+     */
+    public JsonPullParser(final JsonParser parser) {
+        this.parser = parser;
+        parser.setListener(tokens);
+    }
+
+    public JsonParser getParser() {
+        return parser;
+    }
+
+    public JsonPullParser feed(final CharSequence data) {
+        return feed(data, 0, data.length());
+    }
+
+    /**
+     * Passes the next part of the JSON.
+     *
+     * @param data - the part
+     * @param start - index of the first char
+     * @param len - number of the chars
+     * @return this
+     * @throws IllegalStateException if the tokens of the previous part aren't read yet
+     */
+    public JsonPullParser feed(final CharSequence data, final int start, final int len) {
+        checkFed();
+        this.chars = data;
+        this.start = start;
+        this.len = len;
+        return this;
+    }
+
+    public JsonPullParser feed(final byte[] data) {
+        return feed(data, 0, data.length);
+    }
+
+    /**
+     * Passes the next part of UTF-8 encoded JSON, see {@link JsonParser#parse(byte[], int, int)}.
+     *
+     * @param data - UTF-8 encoded bytes
+     * @param start - index of the first byte
+     * @param len - number of the bytes
+     * @return this
+     * @throws IllegalStateException if the tokens of the previous part aren't read yet
+     */
+    public JsonPullParser feed(final byte[] data, final int start, final int len) {
+        checkFed();
+        this.bytes = data;
+        this.start = start;
+        this.len = len;
+        return this;
+    }
+
+    /**
+     * Marks the end of the JSON, the tokens of the parts fed before are read first.
+     *
+     * @return this
+     */
+    public JsonPullParser endOfInput() {
+        endOfInput = true;
+        return this;
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return the token, {@link #NEED_MORE_INPUT} if the parts fed are parsed completely
+     */
+    public int nextToken() {
+        if (token == ERROR) {
+            return ERROR;
+        }
+        final Tokens t = tokens;
+        t.token = NEED_MORE_INPUT;
+        do { // until a token or the end of the parts fed
+            if (next != null) {
+                next = next.next();
+            } else if (chars != null) {
+                final CharSequence data = chars;
+                chars = null;
+                next = parser.parse(data, start, len);
+            } else if (bytes != null) {
+                final byte[] data = bytes;
+                bytes = null;
+                next = parser.parse(data, start, len);
+            } else if (endOfInput) {
+                endOfInput = false;
+                parser.eoj();
+                if (t.token == NEED_MORE_INPUT) {
+                    t.token = END_OF_JSON;
+                } else if (t.token != ERROR) {
+                    endOfJson = true; // the token completed by the end is returned first
+                }
+            } else if (endOfJson) {
+                endOfJson = false;
+                t.token = END_OF_JSON;
+            } else {
+                break;
+            }
+        } while (t.token == NEED_MORE_INPUT);
+        token = t.token;
+        return token;
+    }
+
+    /**
+     * Returns the last token read by {@link #nextToken()}.
+     *
+     * @return the token
+     */
+    public int token() {
+        return token;
+    }
+
+    /**
+     * Returns the chars of the current {@link #MEMBER_NAME} or {@link #STRING}.
+     *
+     * @return the chars, valid until the next token is read
+     */
+    public CharSequence currentString() {
+        return tokens.string;
+    }
+
+    /**
+     * Returns the current {@link #NUMBER}.
+     *
+     * @return the number, valid until the next token is read
+     */
+    public JsonNumber currentNumber() {
+        return tokens.number;
+    }
+
+    public boolean isNumberOverflow() {
+        return tokens.numberOverflow;
+    }
+
+    /**
+     * Skips the value of the current {@link #MEMBER_NAME}, or the content of the current
+     * {@link #START_OBJECT} / {@link #START_ARRAY}, see {@link JsonParser#skipValue()}. In case
+     * of an object / array, the next token is {@link #END_OBJECT} / {@link #END_ARRAY}.
+     * Is ignored for other tokens.
+     */
+    public void skipValue() {
+        if (token == MEMBER_NAME || token == START_OBJECT || token == START_ARRAY) {
+            parser.skipValue();
+        }
+    }
+
+    public String getError() {
+        return parser.getError();
+    }
+
+    public int getErrorPosition() {
+        return parser.getErrorPosition();
+    }
+
+    /**
+     * Drops the parts fed and resets the parser to parse a new JSON document.
+     *
+     * @return this
+     */
+    public JsonPullParser reset() {
+        parser.reset();
+        next = null;
+        chars = null;
+        bytes = null;
+        endOfInput = false;
+        endOfJson = false;
+        tokens.string = null;
+        tokens.number = null;
+        token = NEED_MORE_INPUT;
+        return this;
+    }
+
+    private void checkFed() {
+        if (next != null || chars != null || bytes != null) {
+            throw new IllegalStateException("The tokens of the previous part aren't read yet");
+        }
+    }
+
+    /**
+     * Keeps the token of the last event and stops the parsing.
+     */
+    private static final class Tokens implements JsonParserListener {
+        int token;
+        CharSequence string;
+        JsonNumber number;
+        boolean numberOverflow;
+
+        @Override
+        public void onJsonStarted() {
+        }
+
+        @Override
+        public void onError(final String error, final int position) {
+            token = ERROR;
+        }
+
+        @Override
+        public void onJsonEnded() {
+        }
+
+        @Override
+        public boolean onObjectStarted() {
+            token = START_OBJECT;
+            return false;
+        }
+
+        @Override
+        public boolean onObjectMember(final CharSequence name) {
+            token = MEMBER_NAME;
+            string = name;
+            return false;
+        }
+
+        @Override
+        public boolean onObjectEnded() {
+            token = END_OBJECT;
+            return false;
+        }
+
+        @Override
+        public boolean onArrayStarted() {
+            token = START_ARRAY;
+            return false;
+        }
+
+        @Override
+        public boolean onArrayEnded() {
+            token = END_ARRAY;
+            return false;
+        }
+
+        @Override
+        public boolean onStringValue(final CharSequence data) {
+            token = STRING;
+            string = data;
+            return false;
+        }
+
+        @Override
+        public boolean onNumberValue(final JsonNumber number) {
+            return onNumberValue(number, false);
+        }
+
+        @Override
+        public boolean onNumberValue(final JsonNumber number, final boolean overflow) {
+            token = NUMBER;
+            this.number = number;
+            numberOverflow = overflow;
+            return false;
+        }
+
+        @Override
+        public boolean onTrueValue() {
+            token = TRUE;
+            return false;
+        }
+
+        @Override
+        public boolean onFalseValue() {
+            token = FALSE;
+            return false;
+        }
+
+        @Override
+        public boolean onNullValue() {
+            token = NULL;
+            return false;
+        }
+    }
+}
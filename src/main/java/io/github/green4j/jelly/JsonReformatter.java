@@ -0,0 +1,329 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * Minifies or pretty-prints JSON without parsing it into events. The chars of the JSON
+ * are scanned tracking string values, escapes and the depth only: whitespaces outside
+ * the string values are dropped, and in the pretty-printing mode new lines and indentations
+ * are inserted with the same rules and {@link JsonFormat} as {@link JsonGenerator} uses, so the output is the same
+ * as an indenting generator writes for the same document, except the values, which are copied as is.
+ * The chars between the whitespaces are copied in bulk with
+ * {@link BufferingWriter#appendRaw(CharSequence, int, int)}.
+ * <p>
+ * The JSON can be passed by parts, the state is kept between the calls of
+ * {@link #reformat(CharSequence, int, int)} until {@link #eoj()}. Several top-level values
+ * (like in NDJSON) are written on separate lines. The JSON isn't validated, a malformed
+ * JSON produces a malformed output.
+ */
+public final class JsonReformatter {
+    private static final int MAX_UTF8_SEQUENCE_LENGTH = 4;
+
+    private static final int SCOPE_OBJECT = 0;
+    private static final int SCOPE_ARRAY_STARTED = SCOPE_OBJECT + 1;
+    private static final int SCOPE_ARRAY_ITEM = SCOPE_ARRAY_STARTED + 1;
+    private static final int SCOPE_ARRAY_STRUCTURE_ITEM = SCOPE_ARRAY_ITEM + 1; // an object or array item is copied
+
+    private final BufferingWriter output;
+    private final boolean indent;
+    private final JsonFormat format;
+
+    private final ByteArrayCharSequence bytes = new ByteArrayCharSequence();
+    private final byte[] utf8Sequence = new byte[MAX_UTF8_SEQUENCE_LENGTH];
+    private final ByteArrayCharSequence utf8SequenceChars = new ByteArrayCharSequence(utf8Sequence);
+    private int utf8SequenceLength;
+    private int utf8SequenceRemaining;
+
+    private int[] scopes = new int[8];
+    private int depth;
+    private boolean string;
+    private boolean escape;
+    private boolean scalar; // a number or a literal is being copied
+    private boolean memberValue; // a colon is copied, so the next token is a value of a member
+    private boolean topLevelValue; // a top-level value is started, so the next one starts a new line
+
+    public JsonReformatter(final BufferingWriter output) {
+        this(output, false);
+    }
+
+    /**
+     * Creates a reformatter.
+     *
+     * @param output - the output
+     * @param indent - true to pretty-print with the default {@link JsonFormat}, false to minify
+     */
+    public JsonReformatter(final BufferingWriter output, final boolean indent) {
+        this(output, indent ? new JsonFormat() : null);
+    }
+
+    /**
+     * Creates a reformatter.
+     *
+     * @param output - the output
+     * @param format - the pretty-printing options or null to minify
+     */
+    public JsonReformatter(final BufferingWriter output, final JsonFormat format) {
+        this.output = output;
+        this.indent = format != null;
+        this.format = format;
+    }
+
+    public boolean isIndent() {
+        return indent;
+    }
+
+    public JsonFormat getFormat() {
+        return format;
+    }
+
+    public void reformat(final CharSequence data) {
+        reformat(data, 0, data.length());
+    }
+
+    /**
+     * Reformats a part of UTF-8 encoded JSON. The bytes are copied as is to
+     * a {@link Utf8ByteArrayWriter} and decoded for other writers, a multibyte sequence
+     * may be split between two subsequent calls of the method.
+     *
+     * @param data - UTF-8 encoded bytes
+     * @param start - index of the first byte
+     * @param len - number of bytes
+     */
+    public void reformat(final byte[] data, final int start, final int len) {
+        bytes.set(data, start, len);
+        reformat(bytes, 0, len);
+    }
+
+    /**
+     * Reformats a part of JSON.
+     *
+     * @param data - chars of the JSON, a {@link Utf8CharSequence} for UTF-8 encoded bytes
+     * @param start - index of the first char
+     * @param len - number of chars
+     */
+    public void reformat(final CharSequence data, final int start, final int len) {
+        final BufferingWriter out = output;
+        final boolean utf8 = data instanceof Utf8CharSequence;
+        final int end = start + len;
+
+        int pos = start;
+        if (utf8 && utf8SequenceRemaining > 0) { // complete the multibyte sequence of the previous data
+            while (utf8SequenceRemaining > 0 && pos < end) {
+                utf8Sequence[utf8SequenceLength++] = (byte) data.charAt(pos++);
+                utf8SequenceRemaining--;
+            }
+            if (utf8SequenceRemaining > 0) {
+                return;
+            }
+            out.appendRaw(utf8SequenceChars, 0, utf8SequenceLength);
+            utf8SequenceLength = 0;
+        }
+
+        int runStart = pos; // chars from the start of the run are copied as is
+        for (; pos < end; pos++) {
+            final char c = data.charAt(pos);
+            if (string) {
+                if (escape) {
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '"') {
+                    string = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case 0x09:
+                case 0x0a:
+                case 0x0d:
+                case 0x20:
+                    flush(out, data, runStart, pos);
+                    runStart = pos + 1;
+                    scalar = false;
+                    break;
+                case '{':
+                case '[':
+                    flush(out, data, runStart, pos);
+                    runStart = pos;
+                    beforeValue(out, true);
+                    push(c == '{' ? SCOPE_OBJECT : SCOPE_ARRAY_STARTED);
+                    break;
+                case '}':
+                case ']':
+                    flush(out, data, runStart, pos);
+                    runStart = pos;
+                    scalar = false;
+                    memberValue = false;
+                    endStructure(out);
+                    break;
+                case ',':
+                    scalar = false;
+                    memberValue = false;
+                    break;
+                case ':':
+                    scalar = false;
+                    memberValue = true;
+                    break;
+                case '"':
+                    flush(out, data, runStart, pos);
+                    runStart = pos;
+                    string = true;
+                    if (depth > 0 && scopes[depth - 1] == SCOPE_OBJECT && !memberValue) { // a member name
+                        if (indent) {
+                            format.newLine(out, depth);
+                        }
+                    } else {
+                        beforeValue(out, false);
+                    }
+                    break;
+                default:
+                    if (!scalar) {
+                        flush(out, data, runStart, pos);
+                        runStart = pos;
+                        scalar = true;
+                        beforeValue(out, false);
+                    }
+                    break;
+            }
+        }
+
+        int runEnd = end;
+        if (utf8 && string) { // keep a multibyte sequence split between the data
+            runEnd = utf8SequenceStart(data, Math.max(runStart, end - MAX_UTF8_SEQUENCE_LENGTH + 1), end);
+            for (int i = runEnd; i < end; i++) {
+                utf8Sequence[utf8SequenceLength++] = (byte) data.charAt(i);
+            }
+        }
+        flush(out, data, runStart, runEnd);
+    }
+
+    /**
+     * Completes the JSON, flushes the output and resets the state.
+     */
+    public void eoj() {
+        if (utf8SequenceLength > 0) { // a truncated multibyte sequence
+            output.appendRaw(utf8SequenceChars, 0, utf8SequenceLength);
+        }
+        output.flush();
+        reset();
+    }
+
+    public void reset() {
+        utf8SequenceLength = 0;
+        utf8SequenceRemaining = 0;
+        depth = 0;
+        string = false;
+        escape = false;
+        scalar = false;
+        memberValue = false;
+        topLevelValue = false;
+    }
+
+    private void beforeValue(final BufferingWriter out, final boolean structure) {
+        if (depth == 0) {
+            if (topLevelValue) {
+                if (indent) {
+                    format.newLine(out, 0);
+                } else {
+                    out.append('\n');
+                }
+            }
+            topLevelValue = true;
+            memberValue = false;
+            return;
+        }
+        final int level = depth - 1;
+        final int scope = scopes[level];
+        if (scope != SCOPE_OBJECT) {
+            scopes[level] = structure ? SCOPE_ARRAY_STRUCTURE_ITEM
+                    : scope == SCOPE_ARRAY_STARTED ? SCOPE_ARRAY_ITEM : scope;
+        }
+        if (indent) {
+            if (structure) {
+                format.newLine(out, depth);
+            } else if (scope == SCOPE_OBJECT) {
+                if (memberValue) {
+                    out.append(' ');
+                }
+            } else if (!format.isCompactScalarArrays() || scope == SCOPE_ARRAY_STRUCTURE_ITEM) {
+                format.newLine(out, depth);
+            } else if (scope == SCOPE_ARRAY_ITEM) {
+                out.append(' ');
+            }
+        }
+        memberValue = false;
+    }
+
+    private void endStructure(final BufferingWriter out) {
+        if (depth == 0) {
+            return;
+        }
+        final int scope = scopes[--depth];
+        if (indent && !(format.isCompactScalarArrays()
+                && (scope == SCOPE_ARRAY_STARTED || scope == SCOPE_ARRAY_ITEM))) {
+            format.newLine(out, depth);
+        }
+    }
+
+    private void push(final int scope) {
+        if (depth == scopes.length) {
+            final int[] newScopes = new int[depth << 1];
+            System.arraycopy(scopes, 0, newScopes, 0, depth);
+            scopes = newScopes;
+        }
+        scopes[depth++] = scope;
+    }
+
+    /**
+     * Finds the start of a multibyte UTF-8 sequence, which isn't completed in the data,
+     * and sets the number of the bytes remaining.
+     *
+     * @param data - the data
+     * @param from - index to look for the sequence from
+     * @param end - index after the last byte of the data
+     * @return index of the first byte of the sequence or the end if the data ends with a completed char
+     */
+    private int utf8SequenceStart(final CharSequence data, final int from, final int end) {
+        for (int i = end - 1; i >= from; i--) {
+            final int b = data.charAt(i);
+            if ((b & 0xc0) == 0x80) { // a continuation byte
+                continue;
+            }
+            final int length = (b & 0xe0) == 0xc0 ? 2 : (b & 0xf0) == 0xe0 ? 3 : (b & 0xf8) == 0xf0 ? 4 : 1;
+            if (length > end - i) {
+                utf8SequenceRemaining = length - (end - i);
+                return i;
+            }
+            return end;
+        }
+        return end;
+    }
+
+    private static void flush(final BufferingWriter out, final CharSequence data, final int from, final int to) {
+        if (from < to) {
+            out.appendRaw(data, from, to - from);
+        }
+    }
+}
@@ -40,8 +40,15 @@ package io.github.green4j.jelly;
  * be used instead of a flyweight one, since the length of the result string may
  * be different, less than original string's length. To unescape JSON values you
  * can use {@link CopyingStringBuilder#CopyingStringBuilder(boolean)} with true passed (default value).
+ * 4. When UTF-8 encoded bytes are parsed (see {@link JsonParser#parse(byte[], int, int)}),
+ * multibyte sequences are decoded by {@link CopyingStringBuilder} only. A flyweight
+ * builder presents the raw bytes, one char per byte.
+ * 5. When a message is parsed part by part, but most of the string values have no escapes
+ * and aren't split between the parts, {@link HybridStringBuilder} presents them as flyweights
+ * and copies the rest only.
  * @see FlyweightStringBuilder
  * @see CopyingStringBuilder
+ * @see HybridStringBuilder
  */
 public interface JsonStringBuilder extends CharSequence {
     /**
@@ -61,6 +68,20 @@ public interface JsonStringBuilder extends CharSequence {
      */
     void append(CharSequence data, int start, int len);
 
+    /**
+     * Notifies the builder that the part of JSON message being parsed ends
+     * inside the current string value, so the chars appended from the part
+     * won't be available after the parsing of the part.
+     */
+    default void partEnded() {
+    }
+
+    /**
+     * Notifies the builder that the closing quote of the current string value is reached.
+     */
+    default void end() {
+    }
+
     /**
      * Appends '\' char to the current string value.
      */
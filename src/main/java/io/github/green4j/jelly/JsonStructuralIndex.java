@@ -0,0 +1,294 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * A structural index of UTF-8 encoded JSON (stage 1 of the two-stage parsing, see
+ * {@link JsonParser#parseIndexed(byte[], int, int)}). The index contains the positions of
+ * all the quotation marks, which aren't escaped, and of the brackets and commas
+ * (<code>{ } [ ] ,</code>) outside string values, in ascending order. Colons aren't indexed,
+ * since nothing is looked for with them.
+ * <p>
+ * The bytes are classified by 64-byte blocks with SWAR (SIMD within a register) operations
+ * on 8-byte words: every block gives 64-bit masks of quotes, backslashes and structural chars,
+ * then the escaped chars and the ranges of string values are found with bit arithmetic.
+ */
+public final class JsonStructuralIndex {
+    private static final int ESCAPED_STRING_FLAG = 0x80000000; // set for closing quotes of strings with escapes
+    private static final int POSITION_MASK = ~ESCAPED_STRING_FLAG;
+
+    static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int BLOCK_SIZE = 64;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_7_BITS = 0x7f7f7f7f7f7f7f7fL;
+    static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long CASE_BIT = 0x2020202020202020L;
+    private static final long EVEN_BITS = 0x5555555555555555L;
+    private static final long MOVE_MASK_MAGIC = 0x0102040810204080L;
+
+    private final byte[] tail = new byte[BLOCK_SIZE];
+
+    private int[] entries = new int[64];
+    private int size;
+    private int cursor;
+
+    private long quotes;
+    private long backslashes;
+    private long structurals;
+
+    private long escapedCarry;
+    private long stringCarry;
+    private boolean escapedString;
+
+    /**
+     * Builds the index.
+     *
+     * @param data - UTF-8 encoded bytes
+     * @param start - index of the first byte
+     * @param len - number of bytes
+     * @return this
+     */
+    public JsonStructuralIndex index(final byte[] data, final int start, final int len) {
+        size = 0;
+        cursor = 0;
+        escapedCarry = 0;
+        stringCarry = 0;
+        escapedString = false;
+
+        final int end = start + len;
+        int block = start;
+        for (; block + BLOCK_SIZE <= end; block += BLOCK_SIZE) {
+            classify(data, block);
+            indexBlock(block - start);
+        }
+        if (block < end) {
+            final byte[] t = tail;
+            final int rest = end - block;
+            System.arraycopy(data, block, t, 0, rest);
+            for (int i = rest; i < BLOCK_SIZE; i++) {
+                t[i] = ' ';
+            }
+            classify(t, 0);
+            indexBlock(block - start);
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of an entry relative to the start of the data indexed.
+     *
+     * @param entry - index of the entry
+     * @return position
+     */
+    public int position(final int entry) {
+        return entries[entry] & POSITION_MASK;
+    }
+
+    /**
+     * Checks whether the entry is a closing quotation mark of a string value with
+     * at least one escaped char.
+     *
+     * @param entry - index of the entry
+     * @return true if the string value has escaped chars
+     */
+    public boolean isEscapedStringEnd(final int entry) {
+        return (entries[entry] & ESCAPED_STRING_FLAG) != 0;
+    }
+
+    /**
+     * Looks for the end of a string value without escaped chars. The positions looked for
+     * must not decrease between the calls of the method and {@link #skipEnd(CharSequence, int, int, boolean)}.
+     *
+     * @param openingPosition - position of the opening quotation mark
+     * @return position of the closing quotation mark, or -1 if the value has escaped chars or isn't closed
+     */
+    int stringEnd(final int openingPosition) {
+        final int[] e = entries;
+        final int n = size;
+        int i = cursor;
+        while (i < n && (e[i] & POSITION_MASK) < openingPosition) {
+            i++;
+        }
+        if (i + 1 >= n || e[i] != openingPosition) {
+            cursor = i;
+            return -1;
+        }
+        cursor = i + 2;
+        final int closing = e[i + 1];
+        return closing < 0 ? -1 : closing;
+    }
+
+    /**
+     * Looks for the end of a skipped value, which starts at the position outside
+     * a string value.
+     *
+     * @param data - the data indexed
+     * @param start - index of the first char of the data
+     * @param position - position to look from
+     * @param toComma - true if a comma terminates the value also
+     * @return position of the char, which terminates the value, or -1 if the value isn't terminated
+     */
+    int skipEnd(final CharSequence data, final int start, final int position, final boolean toComma) {
+        final int[] e = entries;
+        final int n = size;
+        int i = cursor;
+        while (i < n && (e[i] & POSITION_MASK) < position) {
+            i++;
+        }
+        int depth = 0;
+        for (; i < n; i++) {
+            final int p = e[i] & POSITION_MASK;
+            switch (data.charAt(start + p)) {
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth == 0) {
+                        cursor = i;
+                        return p;
+                    }
+                    depth--;
+                    break;
+                case ',':
+                    if (depth == 0 && toComma) {
+                        cursor = i;
+                        return p;
+                    }
+                    break;
+                default: // quotes
+                    break;
+            }
+        }
+        cursor = i;
+        return -1;
+    }
+
+    private void classify(final byte[] data, final int offset) {
+        long q = 0;
+        long b = 0;
+        long s = 0;
+        for (int i = 0; i < BLOCK_SIZE; i += Long.BYTES) {
+            final long word = (long) LONGS.get(data, offset + i);
+            final long lowered = word | CASE_BIT; // '[' -> '{', ']' -> '}'
+            q |= moveMask(~notEqual(word, '"')) << i;
+            b |= moveMask(~notEqual(word, '\\')) << i;
+            s |= moveMask(~(notEqual(lowered, '{') & notEqual(lowered, '}') & notEqual(word, ','))) << i;
+        }
+        quotes = q;
+        backslashes = b;
+        structurals = s;
+    }
+
+    private void indexBlock(final int blockPosition) {
+        // escaped chars: the ones after an odd-length sequence of backslashes
+        long backslash = backslashes & ~escapedCarry;
+        final long followsEscape = backslash << 1 | escapedCarry;
+        final long oddSequenceStarts = backslash & ~EVEN_BITS & ~followsEscape;
+        final long sequencesStartingOnEvenBits = oddSequenceStarts + backslash;
+        escapedCarry = Long.compareUnsigned(sequencesStartingOnEvenBits, oddSequenceStarts) < 0 ? 1 : 0;
+        final long invertMask = sequencesStartingOnEvenBits << 1;
+        final long escaped = (EVEN_BITS ^ invertMask) & followsEscape;
+
+        final long q = quotes & ~escaped;
+
+        // string values: from an opening quote (inclusive) to the closing one (exclusive)
+        long inString = q;
+        inString ^= inString << 1;
+        inString ^= inString << 2;
+        inString ^= inString << 4;
+        inString ^= inString << 8;
+        inString ^= inString << 16;
+        inString ^= inString << 32;
+        inString ^= stringCarry;
+        stringCarry = inString >> 63;
+
+        backslash = backslashes & inString;
+        long bits = (structurals & ~inString) | q | backslash;
+
+        while (bits != 0) {
+            final int bit = Long.numberOfTrailingZeros(bits);
+            final long mask = 1L << bit;
+            bits &= bits - 1;
+            if ((backslash & mask) != 0) {
+                escapedString = true;
+                continue;
+            }
+            int entry = blockPosition + bit;
+            if ((q & mask) != 0) {
+                if ((inString & mask) != 0) {
+                    escapedString = false; // an opening quote
+                } else if (escapedString) {
+                    entry |= ESCAPED_STRING_FLAG;
+                }
+            }
+            add(entry);
+        }
+    }
+
+    private void add(final int entry) {
+        int[] e = entries;
+        if (size == e.length) {
+            final int[] newEntries = new int[e.length << 1];
+            System.arraycopy(e, 0, newEntries, 0, e.length);
+            entries = newEntries;
+            e = newEntries;
+        }
+        e[size++] = entry;
+    }
+
+    /**
+     * Compares every byte of the word with the char.
+     *
+     * @param word - 8 bytes
+     * @param c - an ASCII char
+     * @return 0 in the high bit of every byte, which is equal to the char, and 1 in the high bits of other bytes
+     */
+    static long notEqual(final long word, final char c) {
+        final long x = word ^ (ONES * c);
+        return ((x & LOW_7_BITS) + LOW_7_BITS) | x;
+    }
+
+    /**
+     * Gathers the high bits of the bytes into the low 8 bits.
+     *
+     * @param highBits - 8 bytes
+     * @return the mask, where the bit i is the high bit of the byte i
+     */
+    private static long moveMask(final long highBits) {
+        return (((highBits & HIGH_BITS) >>> 7) * MOVE_MASK_MAGIC) >>> 56;
+    }
+}
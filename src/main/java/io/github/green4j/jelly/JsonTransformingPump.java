@@ -0,0 +1,349 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * A {@link JsonParserListener}, which writes the events to a {@link JsonGenerator} dropping and renaming
+ * object members on the fly. The members are selected by their paths in a JSONPath-like syntax
+ * (see {@link JsonPathExtractor}), like {@code $.data[3].price}, the names are appended to the paths
+ * after a dot as is. The path of the current value is kept in a reusable buffer, so the pump
+ * doesn't allocate.
+ * If the parser is set with {@link #setParser(JsonParser)}, the values of the dropped members
+ * are skipped by the parser with {@link JsonParser#skipValue()}, and the strings and the member names
+ * without escape sequences (see {@link JsonParser#isStringEscaped()}) are written without escaping again.
+ * The values captured with {@link JsonParser#captureValue()} are written as is.
+ */
+public class JsonTransformingPump implements JsonParserListener {
+
+    /**
+     * Selects object members to be written.
+     */
+    public interface MemberFilter {
+        /**
+         * Checks whether a member should be written.
+         *
+         * @param path - path of the member, valid until the method returns
+         * @param name - name of the member
+         * @return true to write the member, false to drop it with its value
+         */
+        boolean accept(CharSequence path, CharSequence name);
+    }
+
+    /**
+     * Renames object members.
+     */
+    public interface MemberRenamer {
+        /**
+         * Returns the name, which the member should be written with.
+         *
+         * @param path - path of the member, valid until the method returns
+         * @param name - name of the member
+         * @return the new name, which is escaped when written, or the name itself
+         */
+        CharSequence rename(CharSequence path, CharSequence name);
+    }
+
+    protected final JsonGenerator output;
+
+    private MemberFilter memberFilter;
+    private MemberRenamer memberRenamer;
+    private JsonParser parser;
+
+    private CharArrayCharSequence path = new CharArrayCharSequence(64);
+    private int[] scopePathLengths = new int[8]; // per level: length of the path of the object / array
+    private int[] scopeIndices = new int[8]; // per level: index of the next item of an array, -1 for an object
+    private int depth;
+    private int droppingDepth; // > 0 while the value of a dropped member is being ignored
+
+    public JsonTransformingPump(final BufferingWriter output) {
+        this(new JsonGenerator(output));
+    }
+
+    public JsonTransformingPump(final JsonGenerator output) {
+        this.output = output;
+    }
+
+    public MemberFilter getMemberFilter() {
+        return memberFilter;
+    }
+
+    /**
+     * Sets the filter of the members.
+     *
+     * @param memberFilter - the filter or null to write all the members
+     * @return this
+     */
+    public JsonTransformingPump setMemberFilter(final MemberFilter memberFilter) {
+        this.memberFilter = memberFilter;
+        return this;
+    }
+
+    public MemberRenamer getMemberRenamer() {
+        return memberRenamer;
+    }
+
+    /**
+     * Sets the renamer of the members.
+     *
+     * @param memberRenamer - the renamer or null to keep the names
+     * @return this
+     */
+    public JsonTransformingPump setMemberRenamer(final MemberRenamer memberRenamer) {
+        this.memberRenamer = memberRenamer;
+        return this;
+    }
+
+    public JsonParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Sets the parser, which notifies this pump, to skip the values of the dropped members
+     * and to write the strings and the member names without escape sequences as is.
+     *
+     * @param parser - the parser or null
+     * @return this
+     */
+    public JsonTransformingPump setParser(final JsonParser parser) {
+        this.parser = parser;
+        return this;
+    }
+
+    @Override
+    public void onJsonStarted() {
+        path.setLength(0);
+        appendPath('$');
+        depth = 0;
+        droppingDepth = 0;
+    }
+
+    @Override
+    public void onError(final String error, final int position) {
+    }
+
+    @Override
+    public void onJsonEnded() {
+        output.eoj();
+    }
+
+    @Override
+    public boolean onObjectStarted() {
+        if (droppingDepth > 0) {
+            droppingDepth++;
+            return true;
+        }
+        beforeValue();
+        pushScope(-1);
+        output.startObject();
+        return true;
+    }
+
+    @Override
+    public boolean onObjectMember(final CharSequence name) {
+        if (droppingDepth > 0) {
+            return true;
+        }
+        path.setLength(scopePathLengths[depth - 1]);
+        appendPath('.');
+        appendPath(name);
+
+        if (memberFilter != null && !memberFilter.accept(path, name)) {
+            if (parser != null) {
+                parser.skipValue();
+            } else {
+                droppingDepth = 1;
+            }
+            return true;
+        }
+        final CharSequence outputName = memberRenamer != null ? memberRenamer.rename(path, name) : name;
+        output.objectMember(outputName, outputName != name || parser == null || parser.isStringEscaped());
+        return true;
+    }
+
+    @Override
+    public boolean onObjectEnded() {
+        if (droppingDepth > 0) {
+            endDropping();
+            return true;
+        }
+        depth--;
+        output.endObject();
+        return true;
+    }
+
+    @Override
+    public boolean onArrayStarted() {
+        if (droppingDepth > 0) {
+            droppingDepth++;
+            return true;
+        }
+        beforeValue();
+        pushScope(0);
+        output.startArray();
+        return true;
+    }
+
+    @Override
+    public boolean onArrayEnded() {
+        if (droppingDepth > 0) {
+            endDropping();
+            return true;
+        }
+        depth--;
+        output.endArray();
+        return true;
+    }
+
+    @Override
+    public boolean onStringValue(final CharSequence data) {
+        if (isDropped()) {
+            return true;
+        }
+        beforeValue();
+        output.stringValue(data, parser == null || parser.isStringEscaped());
+        return true;
+    }
+
+    @Override
+    public boolean onNumberValue(final JsonNumber number) {
+        if (isDropped()) {
+            return true;
+        }
+        beforeValue();
+        output.numberValue(number);
+        return true;
+    }
+
+    @Override
+    public boolean onTrueValue() {
+        if (isDropped()) {
+            return true;
+        }
+        beforeValue();
+        output.trueValue();
+        return true;
+    }
+
+    @Override
+    public boolean onFalseValue() {
+        if (isDropped()) {
+            return true;
+        }
+        beforeValue();
+        output.falseValue();
+        return true;
+    }
+
+    @Override
+    public boolean onNullValue() {
+        if (isDropped()) {
+            return true;
+        }
+        beforeValue();
+        output.nullValue();
+        return true;
+    }
+
+    @Override
+    public boolean onRawValue(final CharSequence data, final int start, final int len) {
+        if (isDropped()) {
+            return true;
+        }
+        beforeValue();
+        output.rawValue(data, start, len);
+        return true;
+    }
+
+    private boolean isDropped() {
+        if (droppingDepth == 0) {
+            return false;
+        }
+        if (droppingDepth == 1) { // a scalar value of the dropped member
+            droppingDepth = 0;
+        }
+        return true;
+    }
+
+    private void endDropping() {
+        if (--droppingDepth == 1) { // the object / array of the dropped member is completed
+            droppingDepth = 0;
+        }
+    }
+
+    private void beforeValue() {
+        final int level = depth - 1;
+        if (level < 0) {
+            return;
+        }
+        final int index = scopeIndices[level];
+        if (index < 0) {
+            return;
+        }
+        scopeIndices[level] = index + 1;
+        path.setLength(scopePathLengths[level]);
+        appendPath('[');
+        appendIndex(index);
+        appendPath(']');
+    }
+
+    private void pushScope(final int index) {
+        if (depth == scopeIndices.length) {
+            final int[] newPathLengths = new int[depth << 1];
+            final int[] newIndices = new int[depth << 1];
+            System.arraycopy(scopePathLengths, 0, newPathLengths, 0, depth);
+            System.arraycopy(scopeIndices, 0, newIndices, 0, depth);
+            scopePathLengths = newPathLengths;
+            scopeIndices = newIndices;
+        }
+        scopePathLengths[depth] = path.length();
+        scopeIndices[depth] = index;
+        depth++;
+    }
+
+    private void appendIndex(final int index) {
+        if (index >= 10) {
+            appendIndex(index / 10);
+        }
+        appendPath((char) ('0' + index % 10));
+    }
+
+    private void appendPath(final CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            appendPath(chars.charAt(i));
+        }
+    }
+
+    private void appendPath(final char c) {
+        CharArrayCharSequence p = path;
+        final int length = p.length();
+        if (length == p.array().length) {
+            final char[] newArray = new char[length << 1];
+            System.arraycopy(p.array(), 0, newArray, 0, length);
+            p = path = new CharArrayCharSequence(newArray, length);
+        }
+        p.array()[length] = c;
+        p.setLength(length + 1);
+    }
+}
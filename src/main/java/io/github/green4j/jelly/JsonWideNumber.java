@@ -0,0 +1,69 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+/**
+ * A number, which keeps the digits dropped by a {@link JsonNumber} with an overflowed mantissa.
+ * The numbers are notified as JsonWideNumber, if {@link JsonParser#setWideNumbers(boolean)} is enabled.
+ */
+public interface JsonWideNumber extends JsonNumber {
+
+    /**
+     * Returns the high 64 bits of the 128-bit two's complement mantissa, which is
+     * enough for numbers up to 38 significant digits.
+     *
+     * @return the high 64 bits
+     */
+    long mantissaHigh();
+
+    /**
+     * Returns the low 64 bits of the 128-bit two's complement mantissa.
+     *
+     * @return the low 64 bits
+     */
+    long mantissaLow();
+
+    /**
+     * Returns the decimal exponent of the 128-bit mantissa.
+     *
+     * @return the exponent
+     */
+    int wideExp();
+
+    /**
+     * Checks whether the 128-bit mantissa overflowed, so some digits are dropped also.
+     * The exact number is presented by the {@link #text()} only in this case.
+     *
+     * @return true if the 128-bit mantissa overflowed
+     */
+    boolean isWideOverflow();
+
+    /**
+     * Returns the number as it is in the JSON.
+     *
+     * @return chars of the number, which are valid until the next number is parsed
+     */
+    CharSequence text();
+}
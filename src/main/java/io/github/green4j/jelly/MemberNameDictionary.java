@@ -0,0 +1,169 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.util.Arrays;
+
+/**
+ * A dictionary of expected object member names. Every registered name gets a stable
+ * small int id (0, 1, 2...), so a listener can dispatch the members with a switch
+ * instead of comparing the names char by char. When the dictionary is set to the parser
+ * with {@link JsonParser#setMemberNames(MemberNameDictionary)}, the id of every member
+ * is passed to {@link JsonEventListener#onObjectMember(CharSequence, int)}.
+ * <p>
+ * The names are looked up by the content of a CharSequence with an open addressing hash table
+ * with no allocations. Names, which aren't registered, get {@link #NOT_FOUND} id.
+ */
+public final class MemberNameDictionary {
+    public static final int NOT_FOUND = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] names = new String[MIN_CAPACITY >> 1];
+    private int[] hashes = new int[MIN_CAPACITY >> 1];
+    private int size;
+
+    private int[] slots = new int[MIN_CAPACITY]; // id + 1, 0 means a free slot
+
+    public MemberNameDictionary() {
+    }
+
+    public MemberNameDictionary(final CharSequence... names) {
+        for (final CharSequence name : names) {
+            register(name);
+        }
+    }
+
+    /**
+     * Registers a member name.
+     *
+     * @param name - name of a member
+     * @return the id of the name. If the name is already registered, the same id is returned
+     */
+    public int register(final CharSequence name) {
+        final int len = name.length();
+        final int hash = hash(name, 0, len);
+        final int found = find(name, 0, len, hash);
+        if (found != NOT_FOUND) {
+            return found;
+        }
+
+        final int id = size;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id << 1);
+            hashes = Arrays.copyOf(hashes, id << 1);
+        }
+        names[id] = name.toString();
+        hashes[id] = hash;
+        size = id + 1;
+
+        if (size << 1 > slots.length) {
+            rehash(slots.length << 1);
+        } else {
+            insert(slots, hash, id);
+        }
+        return id;
+    }
+
+    public int id(final CharSequence name) {
+        return id(name, 0, name.length());
+    }
+
+    /**
+     * Returns the id of a member name.
+     *
+     * @param data - chars, which contain the name
+     * @param start - index of the first char of the name
+     * @param len - length of the name
+     * @return the id of the name or {@link #NOT_FOUND} if the name isn't registered
+     */
+    public int id(final CharSequence data, final int start, final int len) {
+        return find(data, start, len, hash(data, start, len));
+    }
+
+    public String name(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("id: " + id + ", size: " + size);
+        }
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int find(final CharSequence data, final int start, final int len, final int hash) {
+        final int[] s = slots;
+        final int mask = s.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            final int id = s[slot] - 1;
+            if (id < 0) {
+                return NOT_FOUND;
+            }
+            if (hashes[id] == hash && equals(names[id], data, start, len)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(final int capacity) {
+        final int[] newSlots = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            insert(newSlots, hashes[id], id);
+        }
+        slots = newSlots;
+    }
+
+    private static void insert(final int[] slots, final int hash, final int id) {
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    private static boolean equals(final String name, final CharSequence data, final int start, final int len) {
+        if (name.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (name.charAt(i) != data.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(final CharSequence data, final int start, final int len) {
+        int h = 0;
+        for (int i = 0; i < len; i++) {
+            h = 31 * h + data.charAt(start + i);
+        }
+        return h ^ (h >>> 16);
+    }
+}
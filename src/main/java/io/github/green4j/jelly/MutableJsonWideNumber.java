@@ -0,0 +1,169 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+public class MutableJsonWideNumber extends MutableJsonNumber implements JsonWideNumber {
+    private static final long MAX_HIGH_BASE = Long.MAX_VALUE / 10;
+
+    private long mantissaHigh;
+    private long mantissaLow;
+    private int wideExp;
+    private boolean wideOverflow;
+
+    private CharArrayCharSequence text = new CharArrayCharSequence(32);
+
+    public MutableJsonWideNumber() {
+    }
+
+    /**
+     * Sets the 128-bit mantissa and the exponent equal to the 64-bit ones.
+     */
+    public void setWideFromMantissa() {
+        final long mantissa = mantissa();
+        setWide(mantissa >> 63, mantissa, exp(), false);
+    }
+
+    public void setWide(final long mantissaHigh, final long mantissaLow, final int wideExp,
+                        final boolean wideOverflow) {
+        this.mantissaHigh = mantissaHigh;
+        this.mantissaLow = mantissaLow;
+        this.wideExp = wideExp;
+        this.wideOverflow = wideOverflow;
+    }
+
+    /**
+     * Sets the 128-bit mantissa and the exponent parsed from the text, which
+     * must be a number in the format accepted by the {@link JsonParser}.
+     */
+    public void setWideFromText() {
+        final char[] chars = text.array();
+        final int length = text.length();
+
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i++] == '-';
+        }
+
+        long high = 0;
+        long low = 0;
+        int exp = 0;
+        boolean overflow = false;
+        boolean fraction = false;
+        for (; i < length; i++) {
+            final char c = chars[i];
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            if (c == 'e' || c == 'E') {
+                break;
+            }
+            if (!overflow && high < MAX_HIGH_BASE) { // * 10 + 9 fits the positive 128-bit range
+                final long digit = c - '0';
+                final long lowBy10 = low * 10;
+                final long newLow = lowBy10 + digit;
+                final long carry = Math.multiplyHigh(low, 10) + ((low >> 63) & 10)
+                        + (Long.compareUnsigned(newLow, lowBy10) < 0 ? 1 : 0);
+                high = high * 10 + carry;
+                low = newLow;
+                if (fraction) {
+                    exp--;
+                }
+            } else {
+                overflow = true;
+                if (!fraction) {
+                    exp++;
+                }
+            }
+        }
+
+        if (i < length) { // the exponent part
+            i++;
+            boolean negativeExp = false;
+            if (chars[i] == '-' || chars[i] == '+') {
+                negativeExp = chars[i++] == '-';
+            }
+            int e = 0;
+            for (; i < length; i++) {
+                e = e * 10 + (chars[i] - '0');
+            }
+            exp += negativeExp ? -e : e;
+        }
+
+        if (negative) {
+            low = -low;
+            high = low == 0 ? -high : ~high;
+        }
+        setWide(high, low, exp, overflow);
+    }
+
+    public void clearText() {
+        text.setLength(0);
+    }
+
+    public void appendText(final CharSequence data, final int start, final int end) {
+        CharArrayCharSequence t = text;
+        final int length = t.length();
+        final int newLength = length + end - start;
+        if (newLength > t.array().length) {
+            final CharArrayCharSequence newText = new CharArrayCharSequence(
+                    Math.max(newLength, t.array().length << 1));
+            System.arraycopy(t.array(), 0, newText.array(), 0, length);
+            text = newText;
+            t = newText;
+        }
+        final char[] chars = t.array();
+        for (int i = start, j = length; i < end; i++, j++) {
+            chars[j] = data.charAt(i);
+        }
+        t.setLength(newLength);
+    }
+
+    @Override
+    public long mantissaHigh() {
+        return mantissaHigh;
+    }
+
+    @Override
+    public long mantissaLow() {
+        return mantissaLow;
+    }
+
+    @Override
+    public int wideExp() {
+        return wideExp;
+    }
+
+    @Override
+    public boolean isWideOverflow() {
+        return wideOverflow;
+    }
+
+    @Override
+    public CharSequence text() {
+        return text;
+    }
+}
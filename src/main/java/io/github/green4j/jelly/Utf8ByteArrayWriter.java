@@ -26,6 +26,8 @@ package io.github.green4j.jelly;
 import java.nio.charset.StandardCharsets;
 
 public class Utf8ByteArrayWriter implements ClearableByteArrayBufferingWriter {
+    private static final char[] NO_ESCAPES = new char[0x80];
+
     private final Frame frame = new Frame() {
         @Override
         public void setCharAt(final int index, final char c) {
@@ -167,15 +169,181 @@ public class Utf8ByteArrayWriter implements ClearableByteArrayBufferingWriter {
 
     @Override
     public void append(final CharSequence data, final int start, final int len) {
-        for (int i = 0; i < len; i++) {
-            append(data.charAt(start + i));
+        assert array != null;
+
+        makeSureRoomSize(len); // enough for ASCII chars, a non-ASCII one checks the room itself
+        final int copied;
+        if (data instanceof String) {
+            copied = appendAscii((String) data, start, len);
+        } else if (data instanceof CharArray) {
+            final CharArray chars = (CharArray) data;
+            copied = appendAscii(chars.array(), chars.start() + start, len);
+        } else {
+            copied = appendAscii(data, start, len);
+        }
+        if (copied < len) {
+            appendEncoded(data, start + copied, start + len, NO_ESCAPES);
+        }
+    }
+
+    /**
+     * Escapes and encodes the chars in a single pass, the runs of the chars to be copied
+     * as is are written straight to the array.
+     *
+     * @param data - chars of the string value
+     * @param start - index of the first char
+     * @param len - number of the chars
+     */
+    @Override
+    public void appendEscaped(final CharSequence data, final int start, final int len) {
+        assert array != null;
+
+        appendEncoded(data, start, start + len, JsonGenerator.ESCAPES);
+    }
+
+    /**
+     * Appends a part of JSON as is. The bytes of a {@link Utf8CharSequence} are copied
+     * without any encoding.
+     *
+     * @param data - chars of JSON
+     * @param start - index of the first char
+     * @param len - number of the chars
+     */
+    @Override
+    public void appendRaw(final CharSequence data, final int start, final int len) {
+        if (!(data instanceof Utf8CharSequence)) {
+            append(data, start, len);
+            return;
+        }
+        makeSureRoomSize(len);
+        final int charIndex = this.start + length;
+        if (data instanceof ByteArray) {
+            final ByteArray bytes = (ByteArray) data;
+            System.arraycopy(bytes.array(), bytes.start() + start, array, charIndex, len);
+        } else {
+            for (int i = 0; i < len; i++) {
+                array[charIndex + i] = (byte) data.charAt(start + i);
+            }
         }
+        length += len;
     }
 
     @Override
     public void flush() {
     }
 
+    /**
+     * Copies the leading ASCII chars of the data. The room must be ensured by the caller.
+     *
+     * @param data - the data
+     * @param from - index of the first char
+     * @param len - number of the chars
+     * @return number of the chars copied, less than the len if a non-ASCII char met
+     */
+    private int appendAscii(final String data, final int from, final int len) {
+        final byte[] array = this.array;
+        final int to = start + length;
+        int i = 0;
+        for (; i < len; i++) {
+            final char c = data.charAt(from + i);
+            if (c >= 0x80) {
+                break;
+            }
+            array[to + i] = (byte) c;
+        }
+        length += i;
+        return i;
+    }
+
+    private int appendAscii(final char[] data, final int from, final int len) {
+        final byte[] array = this.array;
+        final int to = start + length;
+        int i = 0;
+        for (; i < len; i++) {
+            final char c = data[from + i];
+            if (c >= 0x80) {
+                break;
+            }
+            array[to + i] = (byte) c;
+        }
+        length += i;
+        return i;
+    }
+
+    private int appendAscii(final CharSequence data, final int from, final int len) {
+        final byte[] array = this.array;
+        final int to = start + length;
+        int i = 0;
+        for (; i < len; i++) {
+            final char c = data.charAt(from + i);
+            if (c >= 0x80) {
+                break;
+            }
+            array[to + i] = (byte) c;
+        }
+        length += i;
+        return i;
+    }
+
+    private void appendEncoded(final CharSequence data, final int from, final int end, final char[] escapes) {
+        int i = from;
+        while (i < end) {
+            makeSureRoomSize(end - i); // enough for the run of ASCII chars
+            final byte[] array = this.array;
+            int index = start + length;
+            char c = 0;
+            for (; i < end; i++) {
+                c = data.charAt(i);
+                if (c >= 0x80 || escapes[c] != 0) {
+                    break;
+                }
+                array[index++] = (byte) c;
+            }
+            length = index - start;
+            if (i == end) {
+                return;
+            }
+            i++;
+
+            if (c < 0x80) {
+                appendEscape(c, escapes[c]);
+            } else if (escapes != NO_ESCAPES
+                    && (c == JsonGenerator.UNICODE_2028 || c == JsonGenerator.UNICODE_2029)) {
+                appendEscape(c, 'u');
+            } else if (Character.isHighSurrogate(c) && i < end && Character.isLowSurrogate(data.charAt(i))) {
+                appendCodePoint(Character.toCodePoint(c, data.charAt(i++)));
+            } else {
+                append(c); // a lone surrogate is encoded as is
+            }
+        }
+    }
+
+    private void appendEscape(final char c, final char escape) {
+        makeSureRoomSize(6);
+        int charIndex = start + length;
+        array[charIndex++] = '\\';
+        array[charIndex++] = (byte) escape;
+        if (escape != 'u') {
+            length += 2;
+            return;
+        }
+        array[charIndex++] = (byte) JsonGenerator.HEX_DIGITS[c >>> 12 & 0x000f];
+        array[charIndex++] = (byte) JsonGenerator.HEX_DIGITS[c >>> 8 & 0x000f];
+        array[charIndex++] = (byte) JsonGenerator.HEX_DIGITS[c >>> 4 & 0x000f];
+        array[charIndex] = (byte) JsonGenerator.HEX_DIGITS[c & 0x000f];
+        length += 6;
+    }
+
+    private void appendCodePoint(final int codePoint) {
+        makeSureRoomSize(4);
+        int charIndex = start + length;
+        array[charIndex++] = (byte) (0xf0 | (codePoint >> 18));
+        array[charIndex++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+        array[charIndex++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        array[charIndex] = (byte) (0x80 | (codePoint & 0x3f));
+        length += 4;
+    }
+
     private void appendNull() {
         makeSureRoomSize(4);
         int charIndex = start + length;
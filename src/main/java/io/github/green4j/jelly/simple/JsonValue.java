@@ -259,6 +259,14 @@ public final class JsonValue {
             jsonWriter.stringValue((String) value, true);
             return;
         }
+        if (value instanceof Double) {
+            jsonWriter.numberValue(((Double) value).doubleValue());
+            return;
+        }
+        if (value instanceof Float) {
+            jsonWriter.numberValue(((Float) value).floatValue());
+            return;
+        }
         if (value instanceof Number) {
             final BigDecimal decimal = asDecimal();
             jsonWriter.numberValue(decimal.unscaledValue().longValue(), -decimal.scale());
@@ -59,6 +59,10 @@ public interface JsonWriter {
 
     void numberValue(long mantissa, int exp);
 
+    void numberValue(double value);
+
+    void numberValue(float value);
+
     void trueValue();
 
     void falseValue();
@@ -113,6 +113,16 @@ public class JsonWriterGenerator implements JsonWriter {
         generator.numberValue(mantissa, exp);
     }
 
+    @Override
+    public void numberValue(final double value) {
+        generator.numberValue(value);
+    }
+
+    @Override
+    public void numberValue(final float value) {
+        generator.numberValue(value);
+    }
+
     @Override
     public void trueValue() {
         generator.trueValue();
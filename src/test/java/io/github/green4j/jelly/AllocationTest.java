@@ -0,0 +1,374 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the parsing and the generating don't allocate in a steady state.
+ * The number of bytes allocated by the current thread is taken from
+ * the com.sun.management.ThreadMXBean.
+ */
+class AllocationTest {
+    private static final int WARMUP_CYCLES = 20_000;
+    private static final int MEASURED_CYCLES = 1_000;
+    private static final int ATTEMPTS = 5;
+
+    private static final String JSON = "{\n"
+            + "  \"id\": 1234567890123,\n"
+            + "  \"price\": -0.000123e-5,\n"
+            + "  \"big\": 123456789012345678901234567890,\n"
+            + "  \"name\": \"Green \\\"Jelly\\\"\\t\\u0041\\u00e9\\ud83d\\ude00 \u00e9\u4e2d\",\n"
+            + "  \"flags\": [true, false, null],\n"
+            + "  \"nested\": {\"a\": [[], {}, [1, 2.5, {\"b\": \"c\"}]]},\n"
+            + "  \"empty\": \"\"\n"
+            + "}";
+
+    private static final String RECORDS = "{\"a\":1}\n[\"b\",2.5]\n\"c\"\n3\n";
+
+    @Test
+    void parserTest() {
+        final String[] names = {"copying", "flyweight", "hybrid"};
+        final JsonStringBuilder[] builders = {
+            new CopyingStringBuilder(), new FlyweightStringBuilder(), new HybridStringBuilder()
+        };
+
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer heapBuffer = ByteBuffer.wrap(bytes);
+        final ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length);
+        directBuffer.put(bytes).flip();
+        final int half = JSON.length() / 2;
+
+        for (int i = 0; i < builders.length; i++) {
+            final Checksum checksum = new Checksum();
+            final JsonParser parser = new JsonParser(builders[i]).setListener(checksum);
+
+            assertNoAllocation(names[i] + " chars", () -> parser.parseAndEoj(JSON));
+            assertNoAllocation(names[i] + " chunked chars", () -> {
+                parser.parse(JSON, 0, half);
+                parser.parse(JSON, half, JSON.length() - half);
+                parser.eoj();
+            });
+            assertNoAllocation(names[i] + " bytes", () -> parser.parseAndEoj(bytes));
+            assertNoAllocation(names[i] + " heap buffer", () -> parser.parseAndEoj(heapBuffer));
+            assertNoAllocation(names[i] + " direct buffer", () -> parser.parseAndEoj(directBuffer));
+
+            final JsonParser recordParser = new JsonParser(builders[i]).setListener(checksum).setRecordStream(true);
+
+            assertNoAllocation(names[i] + " records", () -> recordParser.parseAndEoj(RECORDS));
+
+            final JsonParser dictionaryParser = new JsonParser(builders[i]).setListener(checksum)
+                    .setMemberNames(new MemberNameDictionary("id", "price", "name", "nested"));
+
+            assertNoAllocation(names[i] + " member names", () -> dictionaryParser.parseAndEoj(JSON));
+
+            final JsonParser wideParser = new JsonParser(builders[i]).setListener(checksum).setWideNumbers(true);
+
+            assertNoAllocation(names[i] + " wide numbers", () -> {
+                wideParser.parse(JSON, 0, half);
+                wideParser.parse(JSON, half, JSON.length() - half);
+                wideParser.eoj();
+            });
+        }
+    }
+
+    @Test
+    void pathExtractorTest() {
+        final MutableLong sum = new MutableLong();
+        final JsonPathExtractor extractor = new JsonPathExtractor(new JsonPathListener() {
+            @Override
+            public boolean onNumberValue(final int path, final long mantissa, final int exp) {
+                sum.value += mantissa;
+                return true;
+            }
+
+            @Override
+            public boolean onStringValue(final int path, final CharSequence value) {
+                sum.value += value.length();
+                return true;
+            }
+        }, "$.id", "$.price", "$.name", "$.nested.a[2][*]", "$.flags[1]", "$.*");
+        final JsonParser parser = new JsonParser().setListener(extractor);
+
+        assertNoAllocation("path extractor", () -> parser.parseAndEoj(JSON));
+
+        extractor.setParser(parser);
+        assertNoAllocation("path extractor with skipping", () -> parser.parseAndEoj(JSON));
+    }
+
+    @Test
+    void pullParserTest() {
+        final MutableLong sum = new MutableLong();
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        final int half = bytes.length / 2;
+
+        for (final JsonStringBuilder builder : new JsonStringBuilder[] {
+            new CopyingStringBuilder(), new FlyweightStringBuilder()
+        }) {
+            final JsonPullParser parser = new JsonPullParser(builder);
+            final Runnable pull = () -> {
+                for (int token = parser.nextToken(); token != JsonPullParser.END_OF_JSON; token = parser.nextToken()) {
+                    if (token == JsonPullParser.NUMBER) {
+                        sum.value += parser.currentNumber().mantissa();
+                    } else if (token == JsonPullParser.STRING || token == JsonPullParser.MEMBER_NAME) {
+                        sum.value += parser.currentString().length();
+                    } else if (token == JsonPullParser.NEED_MORE_INPUT) {
+                        parser.feed(bytes, half, bytes.length - half).endOfInput();
+                    }
+                }
+            };
+
+            assertNoAllocation(builder.getClass().getSimpleName() + " pull chars", () -> {
+                parser.feed(JSON).endOfInput();
+                pull.run();
+            });
+            assertNoAllocation(builder.getClass().getSimpleName() + " pull chunked bytes", () -> {
+                parser.feed(bytes, 0, half);
+                pull.run();
+            });
+        }
+    }
+
+    @Test
+    void eventTapeTest() {
+        final Checksum checksum = new Checksum();
+        final JsonEventTape tape = new JsonEventTape();
+        final JsonParser parser = new JsonParser().setListener(tape);
+        final CharArrayWriter output = new CharArrayWriter(1024);
+        final JsonGenerator generator = new JsonGenerator(output, true);
+
+        assertNoAllocation("tape recording", () -> {
+            tape.clear();
+            parser.parseAndEoj(JSON);
+        });
+        assertNoAllocation("tape replaying", () -> tape.replay(checksum));
+        assertNoAllocation("tape generating", () -> {
+            output.clear();
+            tape.replay(generator);
+        });
+    }
+
+    @Test
+    void generatorTest() {
+        final AsciiByteArrayWriter ascii = new AsciiByteArrayWriter(1024);
+        final Utf8ByteArrayWriter utf8 = new Utf8ByteArrayWriter(1024);
+        final CharArrayWriter chars = new CharArrayWriter(1024);
+        final StringBuilder appendable = new StringBuilder(1024);
+
+        for (final boolean indent : new boolean[] {false, true}) {
+            final JsonGenerator asciiGenerator = new JsonGenerator(ascii, indent);
+            assertNoAllocation("ascii, indent: " + indent, () -> {
+                ascii.clear();
+                generate(asciiGenerator);
+            });
+
+            final JsonGenerator utf8Generator = new JsonGenerator(utf8, indent);
+            assertNoAllocation("utf8, indent: " + indent, () -> {
+                utf8.clear();
+                generate(utf8Generator);
+            });
+
+            final JsonGenerator charsGenerator = new JsonGenerator(chars, indent);
+            assertNoAllocation("chararray, indent: " + indent, () -> {
+                chars.clear();
+                generate(charsGenerator);
+            });
+
+            final JsonGenerator appendableGenerator = new JsonGenerator(appendable, indent);
+            assertNoAllocation("appendable, indent: " + indent, () -> {
+                appendable.setLength(0);
+                generate(appendableGenerator);
+            });
+        }
+    }
+
+    @Test
+    void eventPumpTest() {
+        final CharArrayWriter output = new CharArrayWriter(1024);
+        final JsonParser parser = new JsonParser().setListener(new JsonEventPump(output));
+
+        assertNoAllocation("pump", () -> {
+            output.clear();
+            parser.parseAndEoj(JSON);
+        });
+
+        final JsonParser captureParser = new JsonParser();
+        captureParser.setListener(new JsonEventPump(output) {
+            @Override
+            public boolean onObjectMember(final CharSequence name) {
+                super.onObjectMember(name);
+                captureParser.captureValue();
+                return true;
+            }
+        });
+        final int half = JSON.length() / 2;
+
+        assertNoAllocation("capturing pump", () -> {
+            output.clear();
+            captureParser.parse(JSON, 0, half);
+            captureParser.parse(JSON, half, JSON.length() - half);
+            captureParser.eoj();
+        });
+
+        final JsonParser transformingParser = new JsonParser();
+        transformingParser.setListener(new JsonTransformingPump(output)
+                .setParser(transformingParser)
+                .setMemberFilter((path, name) -> !"$.nested.a[2][2].b".contentEquals(path))
+                .setMemberRenamer((path, name) -> "price".contentEquals(name) ? "cost" : name));
+
+        assertNoAllocation("transforming pump", () -> {
+            output.clear();
+            transformingParser.parse(JSON, 0, half);
+            transformingParser.parse(JSON, half, JSON.length() - half);
+            transformingParser.eoj();
+        });
+    }
+
+    @Test
+    void reformatterTest() {
+        final Utf8ByteArrayWriter output = new Utf8ByteArrayWriter(1024);
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        final int half = bytes.length / 2;
+
+        for (final boolean indent : new boolean[]{false, true}) {
+            final JsonReformatter reformatter = new JsonReformatter(output, indent);
+
+            assertNoAllocation("reformatter " + indent, () -> {
+                output.clear();
+                reformatter.reformat(bytes, 0, half);
+                reformatter.reformat(bytes, half, bytes.length - half);
+                reformatter.eoj();
+            });
+        }
+    }
+
+    private static void generate(final JsonGenerator generator) {
+        generator.startObject();
+        generator.objectMember("id");
+        generator.numberValue(1234567890123L);
+        generator.objectMember("price");
+        generator.numberValue(-123, -8);
+        generator.objectMember("total");
+        generator.numberValue(Long.MIN_VALUE, 5);
+        generator.objectMember("quoted");
+        generator.numberValueAsString(987654321, -4);
+        generator.objectMember("rate");
+        generator.numberValue(0.1 + 0.2);
+        generator.objectMember("ratio");
+        generator.numberValue(2.0f / 3);
+        generator.objectMember("name");
+        generator.stringValue("Green \"Jelly\"\t\u0001 \u00e9\u4e2d\ud83d\ude00", true);
+        generator.objectMember("flags");
+        generator.startArray();
+        generator.trueValue();
+        generator.falseValue();
+        generator.nullValue();
+        generator.startObject();
+        generator.endObject();
+        generator.endArray();
+        generator.objectMember("nested");
+        generator.startObject();
+        generator.objectMember("a");
+        generator.startArray();
+        generator.stringValue("b");
+        generator.eoj();
+    }
+
+    private static void assertNoAllocation(final String name, final Runnable cycle) {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+                "com.sun.management.ThreadMXBean is not supported");
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Allocated memory measurement is not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            cycle.run();
+        }
+
+        long allocated = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < ATTEMPTS && allocated > 0; attempt++) {
+            final long start = threadBean.getThreadAllocatedBytes(threadId);
+            final long overhead = threadBean.getThreadAllocatedBytes(threadId) - start; // the measurement itself
+
+            final long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_CYCLES; i++) {
+                cycle.run();
+            }
+            final long after = threadBean.getThreadAllocatedBytes(threadId);
+
+            allocated = Math.min(allocated, Math.max(0, after - before - overhead));
+        }
+        assertEquals(0, allocated, name + ": bytes allocated per " + MEASURED_CYCLES + " cycles");
+    }
+
+    private static final class MutableLong {
+        long value;
+    }
+
+    private static final class Checksum extends JsonParserListenerAdapter {
+        long value;
+
+        @Override
+        public boolean onObjectMember(final CharSequence name) {
+            value += name.length();
+            return true;
+        }
+
+        @Override
+        public boolean onObjectMember(final CharSequence name, final int id) {
+            value += id;
+            return true;
+        }
+
+        @Override
+        public boolean onStringValue(final CharSequence data) {
+            for (int i = 0; i < data.length(); i++) {
+                value += data.charAt(i);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean onNumberValue(final JsonNumber number) {
+            value += number.mantissa() + number.exp();
+            return true;
+        }
+
+        @Override
+        public void onError(final String error, final int position) {
+            throw new IllegalStateException(error + " at " + position);
+        }
+    }
+}
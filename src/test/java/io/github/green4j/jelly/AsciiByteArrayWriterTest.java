@@ -96,6 +96,22 @@ class AsciiByteArrayWriterTest {
         assertEquals("World", writer.toString());
     }
 
+    @Test
+    void testAppendCharSequenceBulk() {
+        final AsciiByteArrayWriter writer = new AsciiByteArrayWriter(2);
+        final CharArrayCharSequence chars = new CharArrayCharSequence("Hello, W\u00f6rld!".toCharArray(), 13);
+        writer.append(chars, 5, 7);
+        assertEquals(", W\\u00f6rld", writer.toString());
+
+        writer.clear();
+        writer.append(new StringBuilder("Caf\u00e9 au lait"), 1, 8);
+        assertEquals("af\\u00e9 au l", writer.toString());
+
+        writer.clear();
+        writer.append("\u00e9t\u00e9", 0, 3);
+        assertEquals("\\u00e9t\\u00e9", writer.toString());
+    }
+
     @Test
     void testClear() {
         final AsciiByteArrayWriter writer = new AsciiByteArrayWriter(10);
@@ -77,6 +77,18 @@ class CharArrayWriterTest {
         assertEquals("World", writer.toString());
     }
 
+    @Test
+    void testAppendCharSequenceBulk() {
+        final CharArrayWriter writer = new CharArrayWriter(2);
+        final CharArrayCharSequence chars = new CharArrayCharSequence("Hello, W\u00f6rld!".toCharArray(), 13);
+        writer.append(chars, 5, 7);
+        assertEquals(", W\u00f6rld", writer.toString());
+
+        writer.clear();
+        writer.append(new StringBuilder("Caf\u00e9 au lait"), 1, 8);
+        assertEquals("af\u00e9 au l", writer.toString());
+    }
+
     @Test
     void testFrameAppend() {
         final CharArrayWriter writer = new CharArrayWriter(10);
@@ -23,6 +23,8 @@
  */
 package io.github.green4j.jelly;
 
+import java.nio.charset.StandardCharsets;
+
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -59,4 +61,33 @@ public class JsonEventPumpTest {
 
         assertEquals(expectedEvents, resultEvents);
     }
+
+    @Test
+    public void rawValueTest() {
+        final String json = "{\"a\":1,\"c\": [true, {\"d\" : \"\u00e9\"}] ,\"e\":{\"f\":null}}";
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        final JsonParser parser = new JsonParser();
+        final Utf8ByteArrayWriter output = new Utf8ByteArrayWriter(16);
+        parser.setListener(new JsonEventPump(new JsonGenerator(output, false)) {
+            @Override
+            public boolean onObjectMember(final CharSequence name) {
+                super.onObjectMember(name);
+                if (!"a".contentEquals(name)) {
+                    parser.captureValue();
+                }
+                return true;
+            }
+        });
+
+        for (int i = 0; i <= bytes.length; i++) {
+            output.clear();
+            parser.parse(bytes, 0, i);
+            parser.parse(bytes, i, bytes.length - i);
+            parser.eoj();
+
+            assertEquals("{\"a\":1,\"c\":[true, {\"d\" : \"\u00e9\"}],\"e\":{\"f\":null}}",
+                    new String(output.array(), output.start(), output.length(), StandardCharsets.UTF_8));
+        }
+    }
 }
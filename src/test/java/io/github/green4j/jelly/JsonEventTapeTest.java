@@ -0,0 +1,191 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonEventTapeTest {
+
+    private static final String TEST_JSON = "{\"a\": [1, -2.5e3, \"x\\ty\", true, false, null, [], {}],"
+            + " \"b\": {\"c\": \"caf\\u00e9 \u00e9\"}, \"big\": 123456789012345678901234, \"\": \"\"}";
+
+    @Test
+    public void replayTest() {
+        final JsonEvents expected = new JsonEvents();
+        new JsonParser().setListener(expected).parseAndEoj(TEST_JSON);
+
+        final JsonEventTape tape = new JsonEventTape(1, 1); // the tape grows
+        final JsonParser parser = new JsonParser().setListener(tape);
+        parser.parseAndEoj(TEST_JSON);
+        assertFalse(tape.isEmpty());
+
+        final JsonEvents events = new JsonEvents();
+        for (int i = 0; i < 3; i++) { // replayed many times
+            events.clear();
+            assertTrue(tape.replay(events));
+            assertEquals(expected, events);
+        }
+
+        expected.clear();
+        new JsonParser().setListener(expected).parseAndEoj("[\"a\", }");
+
+        tape.clear();
+        assertTrue(tape.isEmpty());
+        parser.parseAndEoj("[\"a\", }");
+        events.clear();
+        assertTrue(tape.replay(events));
+        assertEquals(expected, events);
+    }
+
+    @Test
+    public void replayStoppedTest() {
+        final JsonEventTape tape = new JsonEventTape();
+        new JsonParser().setListener(tape).parseAndEoj("[1, 2, 3]");
+
+        final StringBuilder numbers = new StringBuilder();
+        assertFalse(tape.replay(new JsonParserListenerAdapter() {
+            @Override
+            public boolean onNumberValue(final JsonNumber number) {
+                numbers.append(number.mantissa());
+                return number.mantissa() < 2;
+            }
+        }));
+        assertEquals("12", numbers.toString());
+    }
+
+    @Test
+    public void memberIdsAndDoublesTest() {
+        final StringBuilder expected = new StringBuilder();
+        newParser(trace(expected)).parseAndEoj(TEST_JSON);
+
+        final JsonEventTape tape = new JsonEventTape();
+        newParser(tape).parseAndEoj(TEST_JSON);
+
+        final StringBuilder events = new StringBuilder();
+        assertTrue(tape.replay(trace(events)));
+        assertEquals(expected.toString(), events.toString());
+    }
+
+    @Test
+    public void generatorTest() {
+        for (final boolean indent : new boolean[] {false, true}) {
+            final StringBuilder expected = new StringBuilder(); // all the strings are escaped
+            new JsonParser().setListener(
+                    new JsonTransformingPump(new JsonGenerator(new AppendableWriter<>(expected), indent)))
+                    .parseAndEoj(TEST_JSON);
+
+            final JsonEventTape tape = new JsonEventTape();
+            new JsonParser().setListener(tape).parseAndEoj(TEST_JSON);
+
+            final StringBuilder output = new StringBuilder();
+            final JsonGenerator generator = new JsonGenerator(new AppendableWriter<>(output), indent);
+            tape.replay(generator);
+            assertEquals(expected.toString(), output.toString());
+
+            output.setLength(0);
+            tape.replay(generator);
+            assertEquals(expected.toString(), output.toString());
+        }
+    }
+
+    @Test
+    public void generatorEscapingTest() {
+        final String json = "{\"a\\\"b\": [\"x\\\"y\", \"\\\\\", \"\\u0001\"], \"c/d\": \"\\t\"}";
+
+        final JsonEventTape tape = new JsonEventTape();
+        new JsonParser().setListener(tape).parseAndEoj(json);
+
+        final StringBuilder output = new StringBuilder();
+        tape.replay(new JsonGenerator(new AppendableWriter<>(output), false));
+        assertEquals("{\"a\\\"b\":[\"x\\\"y\",\"\\\\\",\"\\u0001\"],\"c\\/d\":\"\\t\"}", output.toString());
+
+        final JsonEvents expected = new JsonEvents();
+        new JsonParser().setListener(expected).parseAndEoj(json);
+        final JsonEvents events = new JsonEvents();
+        new JsonParser().setListener(events).parseAndEoj(output);
+        assertEquals(expected, events);
+    }
+
+    @Test
+    public void rawValueTest() {
+        final byte[] utf8 = "{\"b\": \"caf\u00e9\"}".getBytes(StandardCharsets.UTF_8);
+        final ByteArrayCharSequence bytes = new ByteArrayCharSequence(utf8);
+
+        final JsonEventTape tape = new JsonEventTape();
+        tape.onArrayStarted();
+        tape.onRawValue(bytes, 1, utf8.length - 2);
+        tape.onRawValue("[1, 2]", 1, 4);
+        tape.onArrayEnded();
+        tape.onJsonEnded();
+
+        final Utf8ByteArrayWriter expected = new Utf8ByteArrayWriter(64);
+        final JsonGenerator expectedGenerator = new JsonGenerator(expected);
+        expectedGenerator.startArray();
+        expectedGenerator.rawValue(bytes, 1, utf8.length - 2);
+        expectedGenerator.rawValue("[1, 2]", 1, 4);
+        expectedGenerator.endArray();
+        expectedGenerator.eoj();
+
+        final Utf8ByteArrayWriter output = new Utf8ByteArrayWriter(64);
+        tape.replay(new JsonGenerator(output));
+        assertEquals(expected.toString(), output.toString());
+        assertTrue(output.toString().contains("\"caf\u00e9\"")); // the bytes are copied as is
+    }
+
+    private static JsonParser newParser(final JsonParserListener listener) {
+        return new JsonParser()
+                .setMemberNames(new MemberNameDictionary("a", "c"))
+                .setDoubleNumbers(true)
+                .setListener(listener);
+    }
+
+    private static JsonParserListener trace(final StringBuilder to) {
+        return new JsonParserListenerAdapter() {
+            @Override
+            public boolean onObjectMember(final CharSequence name, final int id) {
+                to.append(name).append('#').append(id).append(' ');
+                return true;
+            }
+
+            @Override
+            public boolean onNumberValue(final JsonNumber number, final boolean overflow, final double value) {
+                to.append(number.mantissa()).append('e').append(number.exp())
+                        .append(overflow ? " overflow " : " ").append(value).append(' ');
+                return true;
+            }
+
+            @Override
+            public boolean onStringValue(final CharSequence data) {
+                to.append('\'').append(data).append("' ");
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonFileParserTest {
+
+    @Test
+    public void test() throws IOException {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\": ").append(i).append(", \"name\": \"\u043a\u043b\u044e\u0447 ").append(i)
+                    .append("\", \"price\": ").append(i).append(".25, \"flag\": ").append(i % 2 == 0).append('}');
+        }
+        json.append(']');
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        new JsonParser().setListener(expectedEvents).parseAndEoj(json);
+
+        final Path file = Files.createTempFile("green-jelly", ".json");
+        try {
+            Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+
+            for (final int windowSize : new int[] {1, 7, 100, JsonFileParser.DEFAULT_WINDOW_SIZE}) {
+                final JsonEvents events = new JsonEvents();
+                final JsonFileParser parser = new JsonFileParser(new JsonParser().setListener(events), windowSize);
+                parser.parseAndEoj(file);
+
+                assertFalse(parser.hasError());
+                assertEquals(expectedEvents, events);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void errorPositionTest() throws IOException {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i).append(',');
+        }
+        final int errorPosition = json.length();
+        json.append("}");
+
+        final Path file = Files.createTempFile("green-jelly", ".json");
+        try {
+            Files.write(file, json.toString().getBytes(StandardCharsets.US_ASCII));
+
+            final JsonFileParser parser = new JsonFileParser(
+                    new JsonParser().setListener(new JsonParserListenerAdapter()), 64);
+            parser.parseAndEoj(file);
+
+            assertTrue(parser.hasError());
+            assertEquals(errorPosition, parser.getErrorPosition());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -24,9 +24,12 @@
 package io.github.green4j.jelly;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class JsonGeneratorTest {
@@ -97,7 +100,9 @@ public class JsonGeneratorTest {
                 "test",
                 "a b c",
                 "test  test  test  test  test",
-                "test\\/\\\\'\"\b\t\n\f\r\u0004\u0014\u0145\u2300\u2028\u2029test"
+                "test\\/\\\\'\"\b\t\n\f\r\u0004\u0014\u0145\u2300\u2028\u2029test",
+                "\"",
+                "\u0001clean run\u007f\u0080\u2029"
         };
         // unescaping
         for (final String string : strings) {
@@ -115,6 +120,22 @@ public class JsonGeneratorTest {
         }
     }
 
+    @Test
+    public void rangeTest() {
+        final CharArrayWriter writer = new CharArrayWriter(4);
+        final JsonGenerator generator = new JsonGenerator(writer, false);
+        final String data = "[name/value]";
+
+        generator.startObject();
+        generator.objectMember(data, 1, 4);
+        generator.stringValue(data, 6, 5, false);
+        generator.objectMember(new CharArrayCharSequence(data.toCharArray(), data.length()), 6, 5);
+        generator.stringValue(data, 1, 10, true);
+        generator.endObject();
+        generator.eoj();
+        assertEquals("{\"name\":\"value\",\"value\":\"name\\/value\"}", writer.toString());
+    }
+
     @Test
     public void numberTest() {
         final StringBuilder text = new StringBuilder();
@@ -165,6 +186,195 @@ public class JsonGeneratorTest {
         }
     }
 
+    @Test
+    public void minMantissaNumberTest() {
+        final StringBuilder text = new StringBuilder();
+        final JsonGenerator generator = new JsonGenerator(new AppendableWriter<>(text));
+
+        // all the formats: no point, a point inside or before the mantissa, an exponent
+        for (final int exp : new int[] {0, 5, -1, -3, -18, -19, -22, -30, 30}) {
+            text.setLength(0);
+            generator.numberValue(Long.MIN_VALUE, exp);
+            generator.eoj();
+            final BigDecimal expected = new BigDecimal(BigInteger.valueOf(Long.MIN_VALUE), -exp);
+            assertEquals(0, expected.compareTo(new BigDecimal(text.toString())), text.toString());
+        }
+
+        text.setLength(0);
+        generator.numberValue(Long.MIN_VALUE, -3);
+        generator.eoj();
+        assertEquals("-9223372036854775.808", text.toString());
+    }
+
+    @Test
+    public void doubleNumberTest() {
+        final StringBuilder text = new StringBuilder();
+        final AppendableWriter<StringBuilder> writer = new AppendableWriter<>(text);
+        final JsonGenerator generator = new JsonGenerator();
+        generator.setOutput(writer);
+
+        final double[] numbers = new double[]{
+                0.1, -0.3, 1.5e-7, 123.456, 100, 1e22, 1e23, -9007199254740993.0, 2.0 / 3,
+                Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE, -Double.MAX_VALUE, 0.0, -0.0
+        };
+        for (final double number : numbers) {
+            text.setLength(0);
+            generator.numberValue(number);
+            generator.eoj();
+            assertEquals(number, Double.parseDouble(text.toString()));
+        }
+
+        final float[] floats = new float[]{
+                0.1f, -0.3f, 1.5e-7f, 123.456f, 16777216f, Float.MIN_VALUE, Float.MAX_VALUE, -0.0f
+        };
+        for (final float number : floats) {
+            text.setLength(0);
+            generator.numberValue(number);
+            generator.eoj();
+            assertEquals(number, Float.parseFloat(text.toString()));
+        }
+
+        text.setLength(0);
+        final JsonGenerator compactGenerator = new JsonGenerator(writer, false);
+        compactGenerator.startArray();
+        compactGenerator.numberValue(0.1);
+        compactGenerator.numberValue(0.1f);
+        compactGenerator.numberValue(1e-7);
+        compactGenerator.numberValue(1e21);
+        compactGenerator.numberValue(-0.0);
+        compactGenerator.endArray();
+        compactGenerator.eoj();
+        assertEquals("[0.1,0.1,1e-7,1e+21,-0.0]", text.toString());
+    }
+
+    @Test
+    public void nonFiniteNumberTest() {
+        final StringBuilder text = new StringBuilder();
+        final JsonGenerator generator = new JsonGenerator(new AppendableWriter<>(text), false);
+
+        generator.startArray();
+        generator.numberValue(Double.NaN);
+        generator.numberValue(Float.POSITIVE_INFINITY);
+        generator.setNonFiniteNumbers(JsonGenerator.NON_FINITE_NUMBERS_AS_STRING);
+        generator.numberValue(Double.NaN);
+        generator.numberValue(Double.POSITIVE_INFINITY);
+        generator.numberValue(Float.NEGATIVE_INFINITY);
+        generator.endArray();
+        generator.eoj();
+        assertEquals("[null,null,\"NaN\",\"Infinity\",\"-Infinity\"]", text.toString());
+
+        generator.setNonFiniteNumbers(JsonGenerator.NON_FINITE_NUMBERS_AS_ERROR);
+        assertThrows(IllegalArgumentException.class, () -> generator.numberValue(Double.NEGATIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> generator.setNonFiniteNumbers(3));
+    }
+
+    @Test
+    public void formatTest() {
+        final StringBuilder text = new StringBuilder();
+        final JsonFormat format = new JsonFormat().setIndentWidth(2).setLineSeparator("\n");
+        final JsonGenerator generator = new JsonGenerator(new AppendableWriter<>(text), format);
+
+        writeFormatted(generator);
+        assertEquals("{\n"
+                + "  \"a\": 1,\n"
+                + "  \"b\":\n"
+                + "  [\n"
+                + "    1,\n"
+                + "    \"c\"\n"
+                + "  ],\n"
+                + "  \"d\":\n"
+                + "  [\n"
+                + "  ],\n"
+                + "  \"e\":\n"
+                + "  [\n"
+                + "    true,\n"
+                + "    [\n"
+                + "      2\n"
+                + "    ],\n"
+                + "    null\n"
+                + "  ]\n"
+                + "}", text.toString());
+
+        text.setLength(0);
+        format.setTabs(true).setCompactScalarArrays(true);
+        writeFormatted(generator);
+        assertEquals("{\n"
+                + "\t\"a\": 1,\n"
+                + "\t\"b\":\n"
+                + "\t[1, \"c\"],\n"
+                + "\t\"d\":\n"
+                + "\t[],\n"
+                + "\t\"e\":\n"
+                + "\t[true,\n"
+                + "\t\t[2],\n"
+                + "\t\tnull\n"
+                + "\t]\n"
+                + "}", text.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> format.setIndentWidth(-1));
+        assertThrows(IllegalArgumentException.class, () -> format.setLineSeparator(""));
+    }
+
+    private static void writeFormatted(final JsonGenerator generator) {
+        generator.startObject();
+        generator.objectMember("a");
+        generator.numberValue(1);
+        generator.objectMember("b");
+        generator.startArray();
+        generator.numberValue(1);
+        generator.stringValue("c");
+        generator.endArray();
+        generator.objectMember("d");
+        generator.startArray();
+        generator.endArray();
+        generator.objectMember("e");
+        generator.startArray();
+        generator.trueValue();
+        generator.startArray();
+        generator.numberValue(2);
+        generator.endArray();
+        generator.nullValue();
+        generator.endArray();
+        generator.endObject();
+        generator.eoj();
+    }
+
+    @Test
+    public void rawValueTest() {
+        final StringBuilder text = new StringBuilder();
+        final JsonGenerator generator = new JsonGenerator(new AppendableWriter<>(text), false);
+
+        generator.startObject();
+        generator.objectMember("a");
+        generator.rawValue("x{\"b\": [1, 2]}x", 1, 13);
+        generator.objectMember("c");
+        generator.startArray();
+        generator.rawValue("true", 0, 4);
+        generator.rawValue(" \"d\"", 1, 3);
+        generator.endArray();
+        generator.endObject();
+        generator.eoj();
+        assertEquals("{\"a\":{\"b\": [1, 2]},\"c\":[true,\"d\"]}", text.toString());
+
+        // UTF-8 bytes are copied as is or decoded
+        final byte[] bytes = "[\"\u00e9\ud83d\ude00\"]".getBytes(StandardCharsets.UTF_8);
+        final ByteArrayCharSequence raw = new ByteArrayCharSequence(bytes);
+
+        final Utf8ByteArrayWriter utf8 = new Utf8ByteArrayWriter(4);
+        new JsonGenerator(utf8).rawValue(raw, 0, bytes.length);
+        assertEquals("[\"\u00e9\ud83d\ude00\"]",
+                new String(utf8.array(), utf8.start(), utf8.length(), StandardCharsets.UTF_8));
+
+        final AsciiByteArrayWriter ascii = new AsciiByteArrayWriter(4);
+        new JsonGenerator(ascii).rawValue(raw, 0, bytes.length);
+        assertEquals("[\"\\u00e9\\ud83d\\ude00\"]",
+                new String(ascii.array(), ascii.start(), ascii.length(), StandardCharsets.US_ASCII));
+
+        text.setLength(0);
+        new JsonGenerator(new AppendableWriter<>(text)).rawValue(raw, 0, bytes.length);
+        assertEquals("[\"\u00e9\ud83d\ude00\"]", text.toString());
+    }
+
     @Test
     public void numberAsStringTest() {
         final StringBuilder text = new StringBuilder();
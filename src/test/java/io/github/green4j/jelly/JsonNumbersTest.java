@@ -0,0 +1,142 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonNumbersTest {
+
+    @Test
+    void testExact() {
+        assertToDouble(0, 0);
+        assertToDouble(1, 0);
+        assertToDouble(-125, -2);
+        assertToDouble(123456789, -4);
+        assertToDouble(9007199254740992L, 0);
+        assertToDouble(1, 22);
+        assertToDouble(1, -22);
+    }
+
+    @Test
+    void testRounding() {
+        assertToDouble(9007199254740993L, 0); // halfway, to even
+        assertToDouble(9007199254740995L, 0);
+        assertToDouble(9007199254740993L, 1);
+        assertToDouble(Long.MAX_VALUE, 0);
+        assertToDouble(Long.MAX_VALUE, -19);
+        assertToDouble(Long.MIN_VALUE, 0);
+        assertToDouble(1, 23);
+        assertToDouble(7, -342);
+        assertToDouble(31415926535897932L, -16);
+    }
+
+    @Test
+    void testLimits() {
+        assertToDouble(17976931348623157L, 292);
+        assertToDouble(17976931348623159L, 292);
+        assertToDouble(1, 309);
+        assertToDouble(-1, 400);
+        assertToDouble(22250738585072011L, -324);
+        assertToDouble(49, -325);
+        assertToDouble(25, -325);
+        assertToDouble(24, -325);
+        assertToDouble(1, -343);
+        assertToDouble(123456789012345678L, -400);
+    }
+
+    @Test
+    void testRandom() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final long mantissa = random.nextLong() >> random.nextInt(64);
+            final int exp = random.nextInt(700) - 360;
+            assertToDouble(mantissa, exp);
+        }
+    }
+
+    @Test
+    void testJsonNumber() {
+        assertEquals(0.1, new MutableJsonNumber(1, -1).doubleValue());
+        assertEquals(-1.5e300, new MutableJsonNumber(-15, 299).doubleValue());
+    }
+
+    @Test
+    void testToDecimal() {
+        assertToDecimal("1E-1", 0.1);
+        assertToDecimal("-3E-1", -0.3);
+        assertToDecimal("1E2", 100.0);
+        assertToDecimal("1E23", 1e23);
+        assertToDecimal("9007199254740992E0", 9007199254740993.0);
+        assertToDecimal("49E-325", Double.MIN_VALUE);
+        assertToDecimal("17976931348623157E292", Double.MAX_VALUE);
+        assertToDecimal("0E0", 0.0);
+        assertToDecimal("1E-1", 0.1f);
+        assertToDecimal("16777216E0", 16777216f);
+        assertToDecimal("14E-46", Float.MIN_VALUE);
+        assertToDecimal("34028235E31", Float.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> JsonNumbers.toDecimal(Double.NaN, new MutableJsonNumber()));
+    }
+
+    @Test
+    void testToDecimalRoundTrip() {
+        final MutableJsonNumber decimal = new MutableJsonNumber();
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(value)) {
+                JsonNumbers.toDecimal(value, decimal);
+                assertEquals(value, JsonNumbers.toDouble(decimal.mantissa(), decimal.exp()));
+                assertTrue(decimal.mantissa() % 10 != 0 || decimal.mantissa() == 0);
+            }
+            final float floatValue = Float.intBitsToFloat(random.nextInt());
+            if (Float.isFinite(floatValue)) {
+                JsonNumbers.toDecimal(floatValue, decimal);
+                assertEquals(floatValue, Float.parseFloat(decimal.toString()));
+            }
+        }
+    }
+
+    private static void assertToDecimal(final String expected, final double value) {
+        final MutableJsonNumber decimal = new MutableJsonNumber();
+        JsonNumbers.toDecimal(value, decimal);
+        assertEquals(expected, decimal.toString());
+    }
+
+    private static void assertToDecimal(final String expected, final float value) {
+        final MutableJsonNumber decimal = new MutableJsonNumber();
+        JsonNumbers.toDecimal(value, decimal);
+        assertEquals(expected, decimal.toString());
+    }
+
+    private static void assertToDouble(final long mantissa, final int exp) {
+        final String number = mantissa + "E" + exp;
+        assertEquals(Double.parseDouble(number), JsonNumbers.toDouble(mantissa, exp), number);
+    }
+}
@@ -24,12 +24,16 @@
 package io.github.green4j.jelly;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class JsonParserTest {
@@ -279,6 +283,54 @@ public class JsonParserTest {
         assertTrue(events.isEmpty());
     }
 
+    @Test
+    public void hybridStringTest() {
+        final String json = "{\"name\": \"Green \\\"Jelly\\\"\\t\\u0041\\ud83d\\ude00 \u00e9\u4e2d\", "
+                + "\"plain\": [\"abc\", \"\", \"a b c d e f\"], \"\u00e9\": \"x\\/y\"}";
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        final JsonEvents expected = new JsonEvents();
+        new JsonParser(new CopyingStringBuilder()).setListener(expected).parseAndEoj(json);
+
+        final JsonEvents events = new JsonEvents();
+        final HybridStringBuilder hybrid = new HybridStringBuilder();
+        final JsonParser parser = new JsonParser(hybrid).setListener(events);
+
+        // a flyweight when the value isn't split and has no escapes
+        parser.parse("\"abc\"");
+        assertTrue(hybrid.isFlyweight());
+        assertEquals("abc", hybrid.toString());
+        assertEquals("bc", hybrid.subSequence(1, 3).toString());
+        assertEquals("", hybrid.subSequence(3, 3).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> hybrid.subSequence(2, 4));
+        parser.eoj();
+
+        parser.parse("\"a\\tc\"");
+        assertFalse(hybrid.isFlyweight());
+        assertEquals("a\tc", hybrid.toString());
+        assertEquals("\tc", hybrid.subSequence(1, 3).toString());
+        parser.eoj();
+
+        // the values are the same as the copying builder's ones at every split
+        final byte[] part = new byte[bytes.length]; // a buffer reused for the parts
+        for (int i = 0; i <= json.length(); i++) {
+            events.clear();
+            parser.parse(json, 0, i);
+            parser.parse(json, i, json.length() - i);
+            parser.eoj();
+            assertEquals(expected.toString(), events.toString(), "split at " + i);
+        }
+        for (int i = 0; i <= bytes.length; i++) {
+            events.clear();
+            System.arraycopy(bytes, 0, part, 0, i);
+            parser.parse(part, 0, i);
+            System.arraycopy(bytes, i, part, 0, bytes.length - i);
+            parser.parse(part, 0, bytes.length - i);
+            parser.eoj();
+            assertEquals(expected.toString(), events.toString(), "split at byte " + i);
+        }
+    }
+
     @Test
     public void numberTest() {
         final JsonEvents events = new JsonEvents();
@@ -859,6 +911,999 @@ public class JsonParserTest {
         assertEquals(expectedEvents, events);
     }
 
+    @Test
+    public void utf8BytesTest() {
+        final String json = "{\"name\u00e9\": \"caf\u00e9 \u20ac \ud83d\ude00 \\u00e9\\n\","
+                + " \"\u043a\u043b\u044e\u0447\": [1, -2.5e3, true, false, null]}";
+        final byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        new JsonParser().setListener(expectedEvents).parseAndEoj(json);
+
+        final JsonEvents events = new JsonEvents();
+        final JsonParser parser = new JsonParser().setListener(events);
+
+        parser.parseAndEoj(utf8);
+        assertEquals(expectedEvents, events);
+
+        for (int split = 1; split < utf8.length; split++) { // each multibyte sequence is split somewhere
+            events.clear();
+            parser.parse(utf8, 0, split);
+            parser.parse(utf8, split, utf8.length - split);
+            parser.eoj();
+            assertEquals(expectedEvents, events);
+        }
+
+        events.clear();
+        for (int i = 0; i < utf8.length; i++) { // byte by byte
+            parser.parse(utf8, i, 1);
+        }
+        parser.eoj();
+        assertEquals(expectedEvents, events);
+    }
+
+    @Test
+    public void utf8BytesWordsTest() {
+        // long runs of digits, indentations and literals are read by words from byte arrays
+        final String json = "{\n        \"n\": [12345678, 1234567890123456, -123456789012345678901234, "
+                + JsonParser.MAX_MANTISSA_VALUE + ", " + (JsonParser.MAX_MANTISSA_VALUE + 1) + ", "
+                + "0.12345678901234567890, 99999999.99999999e-3, 1234567],\n"
+                + "        \"l\": [true, false, null,\t\r\n                  true],\n"
+                + "                \"s\": \"12345678        \"\n}";
+        final byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        new JsonParser().setListener(expectedEvents).parseAndEoj(json);
+
+        final JsonEvents events = new JsonEvents();
+        final JsonParser parser = new JsonParser().setListener(events);
+
+        parser.parseAndEoj(utf8);
+        assertEquals(expectedEvents, events);
+
+        for (int split = 1; split < utf8.length; split++) { // the words are read at the edges of the parts
+            events.clear();
+            parser.parse(utf8, 0, split);
+            parser.parse(utf8, split, utf8.length - split);
+            parser.eoj();
+            assertEquals(expectedEvents, events, "split at " + split);
+        }
+
+        final String[] malformed = new String[] {"[truE, 1]", "[fal5e, 1]", "[nul1, 1]", "[1234567890x, 1]"};
+        for (final String m : malformed) {
+            parser.parseAndEoj(m);
+            final int expectedPosition = parser.getErrorPosition();
+            assertTrue(parser.hasError());
+
+            final byte[] bytes = m.getBytes(StandardCharsets.UTF_8);
+            parser.parseAndEoj(bytes);
+            assertTrue(parser.hasError());
+            assertEquals(expectedPosition, parser.getErrorPosition(), m);
+        }
+    }
+
+    @Test
+    public void utf8BytesMalformedTest() {
+        final JsonEvents events = new JsonEvents();
+        final JsonParser parser = new JsonParser().setListener(events);
+
+        parser.parseAndEoj(new byte[] {'"', 'a', (byte) 0xc3, 'b', (byte) 0xff, (byte) 0xc0, (byte) 0x80, '"'});
+
+        assertNotNull(events.pop().as(JsonEvents.JsonEnd.class));
+        final JsonEvents.StringValue event = events.pop().as(JsonEvents.StringValue.class);
+        assertNotNull(event);
+        assertEquals("a\ufffdb\ufffd\ufffd", event.string());
+
+        events.clear();
+        parser.parseAndEoj("[1, \u00e9]".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(parser.hasError());
+        assertEquals(4, parser.getErrorPosition());
+    }
+
+    @Test
+    public void utf8BytesTruncatedByQuoteTest() {
+        final byte[] json = new byte[] {
+                '{', '"', (byte) 0xc3, '"', ':', '"', 'a', (byte) 0xe2, (byte) 0x82, '"',
+                ',', '"', 'b', '"', ':', '"', 'c', '"', '}'
+        };
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("\ufffd");
+        expectedEvents.onStringValue("a\ufffd");
+        expectedEvents.onObjectMember("b");
+        expectedEvents.onStringValue("c");
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+
+        for (final JsonStringBuilder builder : new JsonStringBuilder[] {
+                new CopyingStringBuilder(), new HybridStringBuilder()}) {
+            final JsonEvents events = new JsonEvents();
+            final JsonParser parser = new JsonParser(builder).setListener(events);
+            for (int i = 0; i <= json.length; i++) {
+                events.clear();
+                parser.parse(json, 0, i);
+                parser.parse(json, i, json.length - i);
+                parser.eoj();
+
+                assertFalse(parser.hasError());
+                assertEquals(expectedEvents, events);
+            }
+        }
+    }
+
+    @Test
+    public void utf8BytesInTheGivenBoundsTest() {
+        final JsonEvents events = new JsonEvents();
+        final JsonParser parser = new JsonParser(new FlyweightStringBuilder()).setListener(events);
+
+        final byte[] utf8 = "123456789{\"test_member\": \"test_\\\"value\"}abcdefgh"
+                .getBytes(StandardCharsets.US_ASCII);
+        parser.parse(utf8, 9, 31);
+        parser.eoj();
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("test_member");
+        expectedEvents.onStringValue("test_\\\"value");
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+
+        assertEquals(expectedEvents, events);
+    }
+
+    @Test
+    public void byteBufferTest() {
+        final String json = "{\"a\": [1, 2.5, \"\u00e9\u20ac\"], \"b\": {\"c\": null}}";
+        final byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        new JsonParser().setListener(expectedEvents).parseAndEoj(json);
+
+        final JsonEvents events = new JsonEvents();
+        final JsonParser parser = new JsonParser().setListener(events);
+
+        for (final ByteBuffer buffer : new ByteBuffer[] {
+            ByteBuffer.allocate(utf8.length + 20),
+            ByteBuffer.allocateDirect(utf8.length + 20)}) {
+
+            buffer.put("garbage".getBytes(StandardCharsets.US_ASCII));
+            final int position = buffer.position();
+            buffer.put(utf8);
+            buffer.put("garbage".getBytes(StandardCharsets.US_ASCII));
+
+            events.clear();
+            buffer.position(position).limit(position + utf8.length);
+            parser.parseAndEoj(buffer);
+            assertEquals(expectedEvents, events);
+            assertEquals(position, buffer.position());
+
+            for (int split = 1; split < utf8.length; split++) {
+                events.clear();
+                buffer.position(position).limit(position + split);
+                parser.parse(buffer);
+                buffer.position(position + split).limit(position + utf8.length);
+                parser.parse(buffer);
+                parser.eoj();
+                assertEquals(expectedEvents, events);
+            }
+        }
+    }
+
+    @Test
+    public void byteBufferNextTest() {
+        final MutableLong result = new MutableLong(0);
+
+        final JsonParser parser = new JsonParser().setListener(
+                new JsonParserListenerAdapter() {
+                    @Override
+                    public boolean onNumberValue(final JsonNumber number) {
+                        result.value = result.value + number.mantissa();
+                        return false;
+                    }
+                }
+        );
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.put("[10,20,30,40,50]".getBytes(StandardCharsets.US_ASCII));
+        buffer.flip();
+
+        int nextCount = 0;
+        JsonParser.Next next = parser.parse(buffer);
+        while (next != null) {
+            nextCount++;
+            next = next.next();
+        }
+        parser.eoj();
+
+        assertEquals(5, nextCount);
+        assertEquals(150, result.value);
+        assertFalse(parser.hasError());
+    }
+
+    @Test
+    public void recordStreamTest() {
+        final String records = "{\"a\":1}\n[true, \"b\"]\r\n  12.5\n\n\"c\" null{}\n-3";
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("a");
+        expectedEvents.onNumberValue(1, 0, false);
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onArrayStarted();
+        expectedEvents.onTrueValue();
+        expectedEvents.onStringValue("b");
+        expectedEvents.onArrayEnded();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(125, -1, false);
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onStringValue("c");
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNullValue();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(-3, 0, false);
+        expectedEvents.onJsonEnded();
+
+        final JsonEvents events = new JsonEvents();
+        final JsonParser parser = new JsonParser().setListener(events).setRecordStream(true);
+
+        for (int i = 0; i <= records.length(); i++) {
+            events.clear();
+            parser.parse(records.substring(0, i));
+            parser.parse(records.substring(i));
+            parser.eoj();
+
+            assertEquals(expectedEvents, events);
+            assertEquals(7, parser.getRecordIndex());
+            assertFalse(parser.hasError());
+        }
+
+        events.clear();
+        parser.parse("{}\n  \n");
+        parser.parse(" \n");
+        parser.eoj();
+
+        expectedEvents.clear();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+
+        assertEquals(expectedEvents, events);
+        assertEquals(1, parser.getRecordIndex());
+
+        events.clear();
+        parser.parse("{}\n{\"a\":");
+        parser.eoj();
+
+        expectedEvents.clear();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("a");
+        expectedEvents.onError("Internal error. Unexpected lexema", 0);
+        expectedEvents.onJsonEnded();
+
+        assertEquals(expectedEvents, events);
+        assertTrue(parser.hasError());
+        assertEquals(1, parser.getRecordIndex());
+    }
+
+    @Test
+    public void recordStreamLiteralsTest() {
+        final String records = "true\nfalse\nnull\nnull\ntrue\r\n{}\nfalse [1]\ttrue\n";
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onTrueValue();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onFalseValue();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNullValue();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNullValue();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onTrueValue();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onFalseValue();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onArrayStarted();
+        expectedEvents.onNumberValue(1, 0, false);
+        expectedEvents.onArrayEnded();
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onTrueValue();
+        expectedEvents.onJsonEnded();
+
+        final JsonEvents events = new JsonEvents();
+        final JsonParser parser = new JsonParser().setListener(events).setRecordStream(true);
+        final byte[] bytes = records.getBytes(StandardCharsets.US_ASCII);
+
+        for (int i = 0; i <= records.length(); i++) {
+            events.clear();
+            parser.parse(records.substring(0, i));
+            parser.parse(records.substring(i));
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            assertEquals(expectedEvents, events);
+            assertEquals(9, parser.getRecordIndex());
+
+            events.clear();
+            parser.parse(bytes, 0, i);
+            parser.parse(bytes, i, bytes.length - i);
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            assertEquals(expectedEvents, events);
+            assertEquals(9, parser.getRecordIndex());
+        }
+
+        events.clear();
+        parser.parseIndexed(bytes, 0, bytes.length);
+        parser.eoj();
+
+        assertFalse(parser.hasError());
+        assertEquals(expectedEvents, events);
+    }
+
+    @Test
+    public void recordStreamSkipMalformedTest() {
+        final String records = "{\"a\":1}\n{\"a\" 2}\n{\"a\":3}\ntrux [1]\n[4]";
+
+        final JsonEvents events = new JsonEvents();
+        final MutableLong errors = new MutableLong(0);
+        final long[] errorRecords = new long[2];
+        final int[] errorPositions = new int[2];
+        final JsonParser parser = new JsonParser()
+                .setRecordStream(true)
+                .setSkipMalformedRecords(true);
+        parser.setListener(
+                new JsonParserListenerAdapter() {
+                    @Override
+                    public void onJsonStarted() {
+                        events.onJsonStarted();
+                    }
+
+                    @Override
+                    public boolean onNumberValue(final JsonNumber number) {
+                        return events.onNumberValue(number);
+                    }
+
+                    @Override
+                    public void onError(final String error, final int position) {
+                        final int i = (int) errors.value++;
+                        errorRecords[i] = parser.getRecordIndex();
+                        errorPositions[i] = position;
+                        events.onError(error, position);
+                    }
+
+                    @Override
+                    public void onJsonEnded() {
+                        events.onJsonEnded();
+                    }
+                }
+        );
+
+        parser.parseAndEoj(records);
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(1, 0, false);
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onError("Unexpected number", 13);
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(3, 0, false);
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onError("'true' expected", 24);
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(4, 0, false);
+        expectedEvents.onJsonEnded();
+
+        assertEquals(expectedEvents, events);
+        assertFalse(parser.hasError());
+        assertEquals(5, parser.getRecordIndex());
+        assertEquals(1, errorRecords[0]);
+        assertEquals(13, errorPositions[0]);
+        assertEquals(3, errorRecords[1]);
+        assertEquals(24, errorPositions[1]);
+
+        for (int i = 0; i <= records.length(); i++) {
+            events.clear();
+            errors.value = 0;
+            parser.parse(records.substring(0, i));
+            parser.parse(records.substring(i));
+            parser.eoj();
+
+            assertEquals(expectedEvents, events);
+            assertEquals(5, parser.getRecordIndex());
+            assertEquals(1, errorRecords[0]);
+            assertEquals(3, errorRecords[1]);
+        }
+    }
+
+    @Test
+    public void recordStreamSkipTruncatedRecordTest() {
+        final String records = "{\"a\":1\n{\"b\":2}\n[3, {\"c\"\n  \n[4]\n";
+
+        final JsonEvents events = new JsonEvents();
+        final MutableLong errors = new MutableLong(0);
+        final int[] errorPositions = new int[2];
+        final JsonParser parser = new JsonParser()
+                .setRecordStream(true)
+                .setSkipMalformedRecords(true);
+        parser.setListener(
+                new JsonParserListenerAdapter() {
+                    @Override
+                    public void onJsonStarted() {
+                        events.onJsonStarted();
+                    }
+
+                    @Override
+                    public boolean onObjectMember(final CharSequence name) {
+                        return events.onObjectMember(name);
+                    }
+
+                    @Override
+                    public boolean onNumberValue(final JsonNumber number) {
+                        return events.onNumberValue(number);
+                    }
+
+                    @Override
+                    public void onError(final String error, final int position) {
+                        errorPositions[(int) errors.value++] = position;
+                    }
+
+                    @Override
+                    public void onJsonEnded() {
+                        events.onJsonEnded();
+                    }
+                }
+        );
+
+        parser.parseAndEoj(records);
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectMember("a");
+        expectedEvents.onNumberValue(1, 0, false);
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectMember("b");
+        expectedEvents.onNumberValue(2, 0, false);
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(3, 0, false);
+        expectedEvents.onObjectMember("c");
+        expectedEvents.onJsonEnded();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(4, 0, false);
+        expectedEvents.onJsonEnded();
+
+        assertEquals(expectedEvents, events);
+        assertEquals(2, errors.value);
+        assertEquals(7, errorPositions[0]);
+        assertEquals(27, errorPositions[1]);
+        assertEquals(4, parser.getRecordIndex());
+
+        for (int i = 0; i <= records.length(); i++) {
+            for (int j = i; j <= records.length(); j++) {
+                events.clear();
+                errors.value = 0;
+                parser.parse(records.substring(0, i));
+                parser.parse(records.substring(i, j));
+                parser.parse(records.substring(j));
+                parser.eoj();
+
+                assertEquals(expectedEvents, events);
+                assertEquals(2, errors.value);
+                assertEquals(4, parser.getRecordIndex());
+            }
+        }
+    }
+
+    @Test
+    public void memberNamesTest() {
+        final int idId = 0;
+        final int priceId = 1;
+        final int tagsId = 2;
+        final MemberNameDictionary names = new MemberNameDictionary("id", "price", "tags");
+
+        final StringBuilder dispatched = new StringBuilder();
+        final JsonParser parser = new JsonParser()
+                .setMemberNames(names)
+                .setListener(new JsonParserListenerAdapter() {
+                    @Override
+                    public boolean onObjectMember(final CharSequence name, final int id) {
+                        switch (id) {
+                            case idId:
+                                dispatched.append("I");
+                                break;
+                            case priceId:
+                                dispatched.append("P");
+                                break;
+                            case tagsId:
+                                dispatched.append("T");
+                                break;
+                            default:
+                                assertEquals(MemberNameDictionary.NOT_FOUND, id);
+                                dispatched.append('(').append(name).append(')');
+                                break;
+                        }
+                        return true;
+                    }
+                });
+
+        final String json = "{\"id\":1,\"pr\\u0069ce\":2.5,\"other\":{\"tags\":[],\"id\":2},\"ids\":null}";
+        for (int i = 0; i <= json.length(); i++) {
+            dispatched.setLength(0);
+            parser.parse(json.substring(0, i));
+            parser.parse(json.substring(i));
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            assertEquals("IP(other)TI(ids)", dispatched.toString());
+        }
+
+        // without the dictionary the listener is notified with onObjectMember(CharSequence)
+        final JsonEvents events = new JsonEvents();
+        new JsonParser().setListener(events).parseAndEoj("{\"id\":1}");
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("id");
+        expectedEvents.onNumberValue(1, 0, false);
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+
+        assertEquals(expectedEvents, events);
+    }
+
+    @Test
+    public void doubleNumbersTest() {
+        final StringBuilder values = new StringBuilder();
+        final JsonParser parser = new JsonParser().setDoubleNumbers(true);
+        parser.setListener(
+                new JsonParserListenerAdapter() {
+                    @Override
+                    public boolean onNumberValue(final JsonNumber number, final boolean overflow,
+                                                 final double value) {
+                        values.append(value).append(overflow ? "!" : "").append(';');
+                        return true;
+                    }
+                }
+        );
+
+        final String json = "[1,-0.1,2.5e-3,1.7976931348623157e308,9007199254740993,12345678901234567890123,1e400]";
+        for (int i = 0; i <= json.length(); i++) {
+            values.setLength(0);
+            parser.parse(json.substring(0, i));
+            parser.parse(json.substring(i));
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            assertEquals("1.0;-0.1;0.0025;1.7976931348623157E308;9.007199254740992E15;1.2345678901234568E22!;"
+                    + "Infinity;", values.toString());
+        }
+
+        // without the conversion the listener is notified with onNumberValue(JsonNumber, boolean)
+        final JsonEvents events = new JsonEvents();
+        new JsonParser().setListener(events).parseAndEoj("0.5");
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onNumberValue(5, -1, false);
+        expectedEvents.onJsonEnded();
+
+        assertEquals(expectedEvents, events);
+    }
+
+    @Test
+    public void wideNumbersTest() {
+        final StringBuilder values = new StringBuilder();
+        final JsonParser parser = new JsonParser().setWideNumbers(true);
+        parser.setListener(
+                new JsonParserListenerAdapter() {
+                    @Override
+                    public boolean onNumberValue(final JsonNumber number, final boolean overflow) {
+                        final JsonWideNumber wide = (JsonWideNumber) number;
+                        final BigInteger mantissa = BigInteger.valueOf(wide.mantissaHigh()).shiftLeft(64)
+                                .add(new BigInteger(Long.toUnsignedString(wide.mantissaLow())));
+                        values.append(wide.text()).append('=')
+                                .append(new BigDecimal(mantissa, -wide.wideExp()))
+                                .append(overflow ? "!" : "")
+                                .append(wide.isWideOverflow() ? "!" : "")
+                                .append(';');
+                        return true;
+                    }
+                }
+        );
+
+        final String json = "[1,-25e-1,99999999999999999999999999999999999999,"
+                + "-0.12345678901234567890123456789,1.5E+3,"
+                + "123456789012345678901234567890123456789012]";
+        final String expected = "1=1;-25e-1=-2.5;"
+                + "99999999999999999999999999999999999999=99999999999999999999999999999999999999!;"
+                + "-0.12345678901234567890123456789=-0.12345678901234567890123456789!;1.5E+3=1.5E+3;"
+                + "123456789012345678901234567890123456789012=1.23456789012345678901234567890123456789E+41!!;";
+        for (int i = 0; i <= json.length(); i++) {
+            values.setLength(0);
+            parser.parse(json.substring(0, i));
+            parser.parse(json.substring(i));
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            assertEquals(expected, values.toString());
+        }
+
+        // char by char, the last number is completed by the eoj
+        values.setLength(0);
+        final String number = "-12345678901234567890123456789012345678";
+        for (int i = 0; i < number.length(); i++) {
+            parser.parse(number.substring(i, i + 1));
+        }
+        parser.eoj();
+
+        assertFalse(parser.hasError());
+        assertEquals(number + "=" + number + "!;", values.toString());
+    }
+
+    @Test
+    public void skipValueTest() {
+        final JsonParser parser = new JsonParser();
+        final JsonEvents events = new JsonEvents() {
+            @Override
+            public boolean onObjectMember(final CharSequence name) {
+                super.onObjectMember(name);
+                if ("skip".contentEquals(name)) {
+                    parser.skipValue();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean onArrayStarted() {
+                super.onArrayStarted();
+                parser.skipValue();
+                return true;
+            }
+
+            @Override
+            public boolean onNumberValue(final JsonNumber number, final boolean overflow) {
+                super.onNumberValue(number, overflow);
+                parser.skipValue(); // ignored
+                return true;
+            }
+        };
+        parser.setListener(events);
+
+        final String json = "{\"a\":1,\"skip\":{\"b\":\"}]\\\"[{\",\"c\":[1,{\"d\":[]}]},"
+                + "\"skip\" : \"x\\\\\" , \"e\":{\"skip\":12.5e3},\"f\":[1,[2],\"]\"],"
+                + "\"skip\":true,\"g\":{\"h\":null,\"skip\":[]}}";
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        expectedEvents.onJsonStarted();
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("a");
+        expectedEvents.onNumberValue(1, 0, false);
+        expectedEvents.onObjectMember("skip");
+        expectedEvents.onObjectMember("skip");
+        expectedEvents.onObjectMember("e");
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("skip");
+        expectedEvents.onObjectEnded();
+        expectedEvents.onObjectMember("f");
+        expectedEvents.onArrayStarted();
+        expectedEvents.onArrayEnded();
+        expectedEvents.onObjectMember("skip");
+        expectedEvents.onObjectMember("g");
+        expectedEvents.onObjectStarted();
+        expectedEvents.onObjectMember("h");
+        expectedEvents.onNullValue();
+        expectedEvents.onObjectMember("skip");
+        expectedEvents.onObjectEnded();
+        expectedEvents.onObjectEnded();
+        expectedEvents.onJsonEnded();
+
+        for (int i = 0; i <= json.length(); i++) {
+            for (int j = i; j <= json.length(); j++) {
+                events.clear();
+                parser.parse(json.substring(0, i));
+                parser.parse(json.substring(i, j));
+                parser.parse(json.substring(j));
+                parser.eoj();
+
+                assertFalse(parser.hasError());
+                assertEquals(expectedEvents.toString(), events.toString());
+            }
+        }
+
+        // the skipped object is followed by an error
+        events.clear();
+        parser.parse("{\"skip\":{\"a\":[}]}:");
+        parser.eoj();
+
+        assertTrue(parser.hasError());
+        assertEquals(17, parser.getErrorPosition());
+    }
+
+    @Test
+    public void skipValueWithStepsTest() {
+        final StringBuilder log = new StringBuilder();
+        final JsonParser parser = new JsonParser().setRecordStream(true).setListener(
+                new JsonParserListenerAdapter() {
+                    @Override
+                    public boolean onObjectStarted() {
+                        log.append('{');
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onObjectMember(final CharSequence name) {
+                        log.append(name);
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onObjectEnded() {
+                        log.append('}');
+                        return true;
+                    }
+
+                    @Override
+                    public boolean onNumberValue(final JsonNumber number) {
+                        log.append(number.mantissa());
+                        return true;
+                    }
+                }
+        );
+
+        JsonParser.Next next = parser.parse("{\"a\":{\"x\":1},\"b\":[2],\"c\":3}\n{\"d\":4}\n{\"e\":5}");
+        while (next != null) {
+            final char last = log.charAt(log.length() - 1);
+            if (last == 'a' || last == 'b' || (last == '{' && parser.getRecordIndex() == 2)) {
+                parser.skipValue();
+            }
+            next = next.next();
+        }
+        parser.eoj();
+
+        assertFalse(parser.hasError());
+        assertEquals("{abc3}{d4}{}", log.toString());
+        assertEquals(3, parser.getRecordIndex());
+    }
+
+    @Test
+    public void parseIndexedTest() {
+        final String longString = "0123456789abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmnopqrstuvwxyz";
+        final String[] jsons = {
+            "{\"a\":\"" + longString + "\",\"b\":[1,-2.5e3,true,false,null,\"\"],\"c\":{}}",
+            "[\"" + longString + "\\\"\\\\\",\"\\u0041\\n" + longString + "\"] ",
+            " { \"\u0430\u0431\" : \"\u20ac" + longString + "\u20ac\" , \"d\" : [ [ ] , { } ] } ",
+            "\"" + longString + "\"",
+            "{\"a\" \"" + longString + "\"}",
+            "{\"a\":\"" + longString,
+            "{\"a\":\"b\\x\"}",
+            "[\"a\"]\\\"b\"",
+            "12345"
+        };
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        final JsonEvents events = new JsonEvents();
+        final JsonParser expectedParser = new JsonParser().setListener(expectedEvents);
+        final JsonParser parser = new JsonParser().setListener(events);
+
+        for (final String json : jsons) {
+            final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+            for (int i = 0; i <= bytes.length; i++) {
+                expectedEvents.clear();
+                expectedParser.parse(bytes, 0, i);
+                expectedParser.parse(bytes, i, bytes.length - i);
+                expectedParser.eoj();
+
+                events.clear();
+                parser.parse(bytes, 0, i);
+                parser.parseIndexed(bytes, i, bytes.length - i);
+                parser.eoj();
+
+                assertEquals(expectedEvents, events, json);
+                assertEquals(expectedParser.hasError(), parser.hasError());
+                assertEquals(expectedParser.getErrorPosition(), parser.getErrorPosition());
+            }
+        }
+    }
+
+    @Test
+    public void parseIndexedSkipValueTest() {
+        final String json = "{\"a\":1,\"skip\":{\"b\":\"}]\\\"[{\",\"c\":[1,{\"d\":[]}]},"
+                + "\"skip\" : \"x\\\\\" , \"e\":{\"skip\":12.5e3},\"f\":[1,[2],\"]\"],"
+                + "\"skip\":true,\"g\":{\"h\":null,\"skip\":[]},\"skip\":{\"i\":[1,{\"j\":2}]";
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        final String[] logs = new String[2];
+        for (int k = 0; k < logs.length; k++) {
+            final StringBuilder log = new StringBuilder();
+            final JsonParser parser = new JsonParser();
+            parser.setListener(
+                    new JsonParserListenerAdapter() {
+                        @Override
+                        public boolean onObjectMember(final CharSequence name) {
+                            log.append(name).append(';');
+                            if ("skip".contentEquals(name)) {
+                                parser.skipValue();
+                            }
+                            return true;
+                        }
+
+                        @Override
+                        public boolean onArrayStarted() {
+                            log.append('[');
+                            parser.skipValue();
+                            return true;
+                        }
+
+                        @Override
+                        public boolean onObjectEnded() {
+                            log.append('}');
+                            return true;
+                        }
+                    }
+            );
+            if (k == 0) {
+                parser.parse(bytes);
+            } else {
+                parser.parseIndexed(bytes, 0, bytes.length);
+            }
+            parser.parse("}}");
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            logs[k] = log.toString();
+        }
+        assertEquals("a;skip;skip;e;skip;}f;[skip;g;h;skip;}skip;}", logs[0]);
+        assertEquals(logs[0], logs[1]);
+    }
+
+    @Test
+    public void captureValueTest() {
+        final String json = "{\"a\":1,\"raw\" : {\"b\":\"}\\\" \u00e9\ud83d\ude00\",\"c\":[1, 2]} ,"
+                + "\"d\":[ true , \"x\" ],\"e\":[],\"raw\":-12.5e3}";
+        final String expected = "a;raw;<{\"b\":\"}\\\" \u00e9\ud83d\ude00\",\"c\":[1, 2]}>"
+                + "d;<true , \"x\">]e;]raw;<-12.5e3>";
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        final StringBuilder log = new StringBuilder();
+        final AppendableWriter<StringBuilder> raw = new AppendableWriter<>(log);
+        final boolean[] stop = new boolean[1];
+        final JsonParser parser = new JsonParser();
+        parser.setListener(
+                new JsonParserListenerAdapter() {
+                    @Override
+                    public boolean onObjectMember(final CharSequence name) {
+                        log.append(name).append(';');
+                        if ("raw".contentEquals(name)) {
+                            parser.captureValue();
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public boolean onArrayStarted() {
+                        parser.captureValue();
+                        return true;
+                    }
+
+                    @Override
+                    public boolean onArrayEnded() {
+                        log.append(']');
+                        return true;
+                    }
+
+                    @Override
+                    public boolean onRawValue(final CharSequence data, final int start, final int len) {
+                        log.append('<');
+                        raw.appendRaw(data, start, len);
+                        log.append('>');
+                        return !stop[0];
+                    }
+                }
+        );
+
+        for (int i = 0; i <= json.length(); i++) {
+            log.setLength(0);
+            parser.parse(json.substring(0, i));
+            parser.parse(json.substring(i));
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            assertEquals(expected, log.toString());
+        }
+
+        for (int i = 0; i <= bytes.length; i++) {
+            log.setLength(0);
+            parser.parse(bytes, 0, i);
+            parser.parse(bytes, i, bytes.length - i);
+            parser.eoj();
+
+            assertFalse(parser.hasError());
+            assertEquals(expected, log.toString());
+        }
+
+        log.setLength(0);
+        parser.parseIndexed(bytes, 0, bytes.length);
+        parser.eoj();
+
+        assertFalse(parser.hasError());
+        assertEquals(expected, log.toString());
+
+        // the listener stops the parsing, the char terminated the value is parsed with the next call
+        stop[0] = true;
+        log.setLength(0);
+        JsonParser.Next next = parser.parse(json);
+        int stops = 0;
+        while (next != null) {
+            stops++;
+            next = next.next();
+        }
+        parser.eoj();
+
+        assertFalse(parser.hasError());
+        assertEquals(3, stops);
+        assertEquals(expected, log.toString());
+    }
+
+    @Test
+    public void parseIndexedRecordStreamTest() {
+        final String records = "{\"a\":\"x\"}\n{\"a\" \"y\\\"}\n{\"a\":\"z\"}\n\\\"[\"}\n[\"w\"]";
+        final byte[] bytes = records.getBytes(StandardCharsets.UTF_8);
+
+        final JsonEvents expectedEvents = new JsonEvents();
+        final JsonEvents events = new JsonEvents();
+        new JsonParser().setRecordStream(true).setSkipMalformedRecords(true)
+                .setListener(expectedEvents).parseAndEoj(bytes);
+
+        final JsonParser parser = new JsonParser().setRecordStream(true).setSkipMalformedRecords(true)
+                .setListener(events);
+        parser.parseIndexed(bytes, 0, bytes.length);
+        parser.eoj();
+
+        assertEquals(expectedEvents, events);
+        assertEquals(4, parser.getRecordIndex());
+    }
+
     class MutableLong {
         long value;
 
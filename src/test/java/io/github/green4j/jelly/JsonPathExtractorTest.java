@@ -0,0 +1,187 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonPathExtractorTest {
+
+    private static final String JSON = "{\"id\":\"doc-1\",\"data\":["
+            + "{\"price\":10.5,\"name\":\"a\",\"qty\":1,\"price\":{\"x\":1}},"
+            + "{\"name\":\"b\",\"price\":11,\"tags\":[\"price\"],\"ok\":true},"
+            + "{\"price\":null,\"nested\":{\"price\":99}}],"
+            + "\"order book\":{\"bids\":[[100,5],[99,7]],\"asks\":[]},"
+            + "\"flags\":[false,true]}";
+
+    @Test
+    void testExtraction() {
+        final StringBuilder log = new StringBuilder();
+        final JsonPathExtractor extractor = new JsonPathExtractor(new Log(log),
+                "$.data[*].price",
+                "$.data[1].name",
+                "$['order book'].bids[1][0]",
+                "$.id",
+                "$.flags[*]",
+                "$.data[0].*",
+                "$.missing.price");
+        final JsonParser parser = new JsonParser().setListener(extractor);
+
+        final String expected = "3:doc-1;"
+                + "0:105e-1;5:105e-1;5:a;5:1e0;"
+                + "1:b;0:11e0;"
+                + "0:null;"
+                + "2:99e0;"
+                + "4:false;4:true;";
+
+        for (final JsonParser skippingParser : new JsonParser[] {null, parser}) {
+            extractor.setParser(skippingParser);
+            for (int i = 0; i <= JSON.length(); i++) {
+                log.setLength(0);
+                parser.parse(JSON.substring(0, i));
+                parser.parse(JSON.substring(i));
+                parser.eoj();
+
+                assertFalse(parser.hasError());
+                assertEquals(expected, log.toString());
+            }
+        }
+    }
+
+    @Test
+    void testRootAndLongValues() {
+        final StringBuilder log = new StringBuilder();
+        final JsonPathExtractor extractor = new JsonPathExtractor(new JsonPathListener() {
+            @Override
+            public boolean onLongValue(final int path, final long value) {
+                log.append(path).append(':').append(value).append(';');
+                return true;
+            }
+        }, "$", "$[*][0]", "$[2]", "$['*']");
+        final JsonParser parser = new JsonParser().setListener(extractor);
+        extractor.setParser(parser);
+
+        parser.parseAndEoj("12");
+        assertEquals("0:12;", log.toString());
+
+        log.setLength(0);
+        parser.parseAndEoj("[[1,2],[3.5,4],5,{\"a\":6}]");
+        assertEquals("1:1;2:5;", log.toString());
+
+        log.setLength(0);
+        parser.parseAndEoj("{\"a\":7,\"b\":[8]}");
+        assertEquals("3:7;", log.toString());
+    }
+
+    @Test
+    void testStop() {
+        final StringBuilder log = new StringBuilder();
+        final JsonPathExtractor extractor = new JsonPathExtractor(new Log(log) {
+            @Override
+            public boolean onNumberValue(final int path, final long mantissa, final int exp) {
+                super.onNumberValue(path, mantissa, exp);
+                return false;
+            }
+        }, "$[*]");
+        final JsonParser parser = new JsonParser().setListener(extractor);
+
+        JsonParser.Next next = parser.parse("[1,\"a\",2,3]");
+        int steps = 0;
+        while (next != null) {
+            steps++;
+            next = next.next();
+        }
+        parser.eoj();
+
+        assertEquals(3, steps);
+        assertEquals("0:1e0;0:a;0:2e0;0:3e0;", log.toString());
+    }
+
+    @Test
+    void testRecordStream() {
+        final StringBuilder log = new StringBuilder();
+        final JsonParser parser = new JsonParser()
+                .setRecordStream(true)
+                .setListener(new JsonPathExtractor(new Log(log), "$.a", "$[0]"));
+
+        parser.parseAndEoj("{\"a\":1}\n[2]\n{\"b\":{\"a\":3}}\n[[4]]\n{\"a\":\"5\"}");
+
+        assertEquals("0:1e0;1:2e0;0:5;", log.toString());
+    }
+
+    @Test
+    void testIncorrectPaths() {
+        final JsonPathListener listener = new JsonPathListener() {
+        };
+        assertThrows(IllegalArgumentException.class, () -> new JsonPathExtractor(listener));
+        for (final String path : new String[] {
+            "", "a", "$.", "$..a", "$a", "$[", "$[]", "$[a]", "$[1", "$['a'", "$['a']b", "$[99999999999]"}) {
+            assertThrows(IllegalArgumentException.class, () -> new JsonPathExtractor(listener, path), path);
+        }
+        final String[] paths = new String[JsonPathExtractor.MAX_NUMBER_OF_PATHS + 1];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = "$[" + i + "]";
+        }
+        assertThrows(IllegalArgumentException.class, () -> new JsonPathExtractor(listener, paths));
+        assertEquals(64, new JsonPathExtractor(listener, Arrays.copyOf(paths, 64)).numberOfPaths());
+    }
+
+    static class Log implements JsonPathListener {
+        private final StringBuilder log;
+
+        Log(final StringBuilder log) {
+            this.log = log;
+        }
+
+        @Override
+        public boolean onStringValue(final int path, final CharSequence value) {
+            log.append(path).append(':').append(value).append(';');
+            return true;
+        }
+
+        @Override
+        public boolean onNumberValue(final int path, final long mantissa, final int exp) {
+            log.append(path).append(':').append(mantissa).append('e').append(exp).append(';');
+            return true;
+        }
+
+        @Override
+        public boolean onBooleanValue(final int path, final boolean value) {
+            log.append(path).append(':').append(value).append(';');
+            return true;
+        }
+
+        @Override
+        public boolean onNullValue(final int path) {
+            log.append(path).append(':').append("null").append(';');
+            return true;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonPullParserTest {
+
+    private static final String TEST_JSON = "{\"a\": [1, -2.5e3, \"x\\ty\", true, false, null, [], {}],"
+            + " \"b\": {\"c\": \"caf\u00e9 \ud83d\ude00\"}, \"d\": 1234567890123}";
+
+    private static final String TEST_TOKENS = "{ a: [ 1 -25e2 'x\ty' true false null [ ] { } ]"
+            + " b: { c: 'caf\u00e9 \ud83d\ude00' } d: 1234567890123 } END";
+
+    @Test
+    public void tokensTest() {
+        final JsonPullParser parser = new JsonPullParser();
+
+        parser.feed(TEST_JSON).endOfInput();
+        assertEquals(TEST_TOKENS, read(parser));
+
+        parser.feed(TEST_JSON.getBytes(StandardCharsets.UTF_8)).endOfInput();
+        assertEquals(TEST_TOKENS, read(parser));
+    }
+
+    @Test
+    public void chunkedTest() {
+        final JsonPullParser parser = new JsonPullParser();
+        final byte[] bytes = TEST_JSON.getBytes(StandardCharsets.UTF_8);
+
+        final StringBuilder tokens = new StringBuilder();
+        for (int i = 0; i < bytes.length; i++) { // byte by byte
+            parser.feed(bytes, i, 1);
+            tokens.append(read(parser));
+        }
+        parser.endOfInput();
+        tokens.append(read(parser));
+        assertEquals(TEST_TOKENS, tokens.toString());
+
+        for (int split = 1; split < TEST_JSON.length(); split++) {
+            tokens.setLength(0);
+            parser.feed(TEST_JSON, 0, split);
+            tokens.append(read(parser));
+            parser.feed(TEST_JSON, split, TEST_JSON.length() - split).endOfInput();
+            tokens.append(read(parser));
+            assertEquals(TEST_TOKENS, tokens.toString(), "split at " + split);
+        }
+    }
+
+    @Test
+    public void endOfInputTest() {
+        final JsonPullParser parser = new JsonPullParser(new FlyweightStringBuilder());
+
+        assertEquals(JsonPullParser.NEED_MORE_INPUT, parser.nextToken());
+
+        parser.feed("-1");
+        assertEquals(JsonPullParser.NEED_MORE_INPUT, parser.nextToken());
+        parser.feed("2.5");
+        assertEquals(JsonPullParser.NEED_MORE_INPUT, parser.nextToken());
+        parser.endOfInput();
+        assertEquals(JsonPullParser.NUMBER, parser.nextToken()); // completed by the end
+        assertEquals(-125, parser.currentNumber().mantissa());
+        assertEquals(-1, parser.currentNumber().exp());
+        assertEquals(JsonPullParser.END_OF_JSON, parser.nextToken());
+        assertEquals(JsonPullParser.NEED_MORE_INPUT, parser.nextToken());
+
+        parser.feed("\"next\"").endOfInput(); // a new document
+        assertEquals(JsonPullParser.STRING, parser.nextToken());
+        assertEquals("next", parser.currentString().toString());
+        assertEquals(JsonPullParser.END_OF_JSON, parser.nextToken());
+    }
+
+    @Test
+    public void skipValueTest() {
+        final JsonPullParser parser = new JsonPullParser();
+
+        parser.feed("{\"a\": {\"b\": [1, \"}\"]}, \"c\": [2, [3]], \"d\": [4]}").endOfInput();
+        final StringBuilder tokens = new StringBuilder();
+        for (int token = parser.nextToken(); token != JsonPullParser.END_OF_JSON; token = parser.nextToken()) {
+            append(parser, token, tokens);
+            if (token == JsonPullParser.MEMBER_NAME && "a".contentEquals(parser.currentString())
+                    || token == JsonPullParser.START_ARRAY && tokens.toString().endsWith("c: [ ")) {
+                parser.skipValue();
+            }
+            if (token == JsonPullParser.NUMBER) {
+                parser.skipValue(); // ignored
+            }
+        }
+        assertEquals("{ a: c: [ ] d: [ 4 ] } ", tokens.toString());
+    }
+
+    @Test
+    public void errorTest() {
+        final JsonPullParser parser = new JsonPullParser();
+
+        parser.feed("[1, }, 2]");
+        assertEquals(JsonPullParser.START_ARRAY, parser.nextToken());
+        assertEquals(JsonPullParser.NUMBER, parser.nextToken());
+        assertEquals(JsonPullParser.ERROR, parser.nextToken());
+        assertEquals(4, parser.getErrorPosition());
+        assertEquals(JsonPullParser.ERROR, parser.nextToken());
+
+        parser.reset().feed("[]").endOfInput();
+        assertEquals("[ ] END", read(parser));
+    }
+
+    @Test
+    public void feedTest() {
+        final JsonPullParser parser = new JsonPullParser();
+
+        parser.feed("[1, 2, ");
+        assertThrows(IllegalStateException.class, () -> parser.feed("3]"));
+        assertEquals(JsonPullParser.START_ARRAY, parser.nextToken());
+        assertThrows(IllegalStateException.class, () -> parser.feed("3]"));
+        assertEquals("1 2 ", read(parser));
+        parser.feed("3]").endOfInput(); // the tokens of the previous part are read
+        assertEquals("3 ] END", read(parser));
+    }
+
+    private static String read(final JsonPullParser parser) {
+        final StringBuilder tokens = new StringBuilder();
+        for (int token = parser.nextToken(); token != JsonPullParser.NEED_MORE_INPUT; token = parser.nextToken()) {
+            append(parser, token, tokens);
+            if (token == JsonPullParser.END_OF_JSON || token == JsonPullParser.ERROR) {
+                break;
+            }
+        }
+        return tokens.toString();
+    }
+
+    private static void append(final JsonPullParser parser, final int token, final StringBuilder to) {
+        switch (token) {
+            case JsonPullParser.START_OBJECT:
+                to.append("{ ");
+                break;
+            case JsonPullParser.MEMBER_NAME:
+                to.append(parser.currentString()).append(": ");
+                break;
+            case JsonPullParser.END_OBJECT:
+                to.append("} ");
+                break;
+            case JsonPullParser.START_ARRAY:
+                to.append("[ ");
+                break;
+            case JsonPullParser.END_ARRAY:
+                to.append("] ");
+                break;
+            case JsonPullParser.STRING:
+                to.append('\'').append(parser.currentString()).append("' ");
+                break;
+            case JsonPullParser.NUMBER: {
+                final JsonNumber number = parser.currentNumber();
+                to.append(number.mantissa());
+                if (number.exp() != 0) {
+                    to.append('e').append(number.exp());
+                }
+                to.append(' ');
+                break;
+            }
+            case JsonPullParser.TRUE:
+                to.append("true ");
+                break;
+            case JsonPullParser.FALSE:
+                to.append("false ");
+                break;
+            case JsonPullParser.NULL:
+                to.append("null ");
+                break;
+            case JsonPullParser.END_OF_JSON:
+                to.append("END");
+                break;
+            default:
+                to.append("ERROR ").append(parser.getError());
+                break;
+        }
+    }
+}
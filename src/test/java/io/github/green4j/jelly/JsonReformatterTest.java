@@ -0,0 +1,131 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonReformatterTest {
+
+    private static final String TEST_JSON = "{\n"
+            + "  \"a\" : 1,\n"
+            + "  \"b\" : [ true, false, null, -1.5e-3, \"x y\", \"\\\"{[ ]}\\\\\" ],\n"
+            + "  \"c\" : { },\n"
+            + "  \"d\" : [ [ ], { \"e\" : \"\\u00e9\\ud83d\\ude00\" }, [ 1, [ 2 ] ] ],\n"
+            + "  \"f\" : {\"g\": {\"h\": \"i\"}}\n"
+            + "}";
+
+    @Test
+    public void minifyTest() {
+        final String expected = "{\"a\":1,\"b\":[true,false,null,-1.5e-3,\"x y\",\"\\\"{[ ]}\\\\\"],\"c\":{},"
+                + "\"d\":[[],{\"e\":\"\\u00e9\\ud83d\\ude00\"},[1,[2]]],\"f\":{\"g\":{\"h\":\"i\"}}}";
+
+        assertReformatted(expected, TEST_JSON, false);
+    }
+
+    @Test
+    public void prettyPrintTest() {
+        // the same as the generator writes, the values are the same after the parsing and the generation
+        final String json = TEST_JSON.replace("-1.5e-3", "1")
+                .replace("\\\"{[ ]}\\\\", "{[ ]}")
+                .replace("\\u00e9\\ud83d\\ude00", "\u00e9\ud83d\ude00");
+        final StringBuilder expected = new StringBuilder();
+        new JsonParser().setListener(new JsonEventPump(new JsonGenerator(expected, true))).parseAndEoj(json);
+
+        assertReformatted(expected.toString(), json, true);
+
+        // the reformatting of the pretty-printed JSON doesn't change it
+        assertReformatted(expected.toString(), expected.toString(), true);
+    }
+
+    @Test
+    public void formatTest() {
+        final String json = "{\"a\":[1,[],[2,\"3\"],{\"b\":[[4]]},5],\"c\":{},\"d\":[],\"e\":[6,7]}";
+        final JsonFormat[] formats = {
+                new JsonFormat().setIndentWidth(3).setLineSeparator("\r\n"),
+                new JsonFormat().setTabs(true).setLineSeparator("\n").setCompactScalarArrays(true)
+        };
+        for (final JsonFormat format : formats) {
+            // the same as the generator writes
+            final StringBuilder expected = new StringBuilder();
+            new JsonParser().setListener(new JsonEventPump(new JsonGenerator(new AppendableWriter<>(expected), format)))
+                    .parseAndEoj(json);
+
+            final StringBuilder result = new StringBuilder();
+            final JsonReformatter reformatter = new JsonReformatter(new AppendableWriter<>(result), format);
+            for (int i = 0; i <= json.length(); i++) {
+                result.setLength(0);
+                reformatter.reformat(json, 0, i);
+                reformatter.reformat(json, i, json.length() - i);
+                reformatter.eoj();
+
+                assertEquals(expected.toString(), result.toString());
+            }
+        }
+    }
+
+    @Test
+    public void topLevelValuesTest() {
+        assertReformatted("{\"a\":1}\n[2]\n3\n\"4\"", " {\"a\": 1}\n[2] 3\n\n \"4\" ", false);
+    }
+
+    private static void assertReformatted(final String expected, final String json, final boolean indent) {
+        final StringBuilder chars = new StringBuilder();
+        final JsonReformatter charsReformatter = new JsonReformatter(new AppendableWriter<>(chars), indent);
+
+        final Utf8ByteArrayWriter utf8 = new Utf8ByteArrayWriter(16);
+        final JsonReformatter utf8Reformatter = new JsonReformatter(utf8, indent);
+
+        final StringBuilder decoded = new StringBuilder();
+        final JsonReformatter decodingReformatter = new JsonReformatter(new AppendableWriter<>(decoded), indent);
+
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i <= json.length(); i++) {
+            chars.setLength(0);
+            charsReformatter.reformat(json, 0, i);
+            charsReformatter.reformat(json, i, json.length() - i);
+            charsReformatter.eoj();
+
+            assertEquals(expected, chars.toString());
+        }
+        for (int i = 0; i <= bytes.length; i++) {
+            utf8.clear();
+            utf8Reformatter.reformat(bytes, 0, i);
+            utf8Reformatter.reformat(bytes, i, bytes.length - i);
+            utf8Reformatter.eoj();
+
+            assertEquals(expected, new String(utf8.array(), utf8.start(), utf8.length(), StandardCharsets.UTF_8));
+
+            decoded.setLength(0);
+            decodingReformatter.reformat(bytes, 0, i);
+            decodingReformatter.reformat(bytes, i, bytes.length - i);
+            decodingReformatter.eoj();
+
+            assertEquals(expected, decoded.toString());
+        }
+    }
+}
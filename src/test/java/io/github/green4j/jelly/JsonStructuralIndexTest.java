@@ -0,0 +1,118 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonStructuralIndexTest {
+
+    @Test
+    void testIndex() {
+        final byte[] json = "xx{\"a\":[1, \"b\\\"c\"], \"d\\\\\" : {}}yy".getBytes(StandardCharsets.US_ASCII);
+        final JsonStructuralIndex index = new JsonStructuralIndex().index(json, 2, json.length - 4);
+
+        assertArrayEquals(new int[] {0, 1, 3, 5, 7, 9, 14, 15, 16, 18, 22, 26, 27, 28}, positions(index));
+        assertFalse(index.isEscapedStringEnd(2));
+        assertTrue(index.isEscapedStringEnd(6));
+        assertTrue(index.isEscapedStringEnd(10));
+    }
+
+    @Test
+    void testRandomBlocks() {
+        final String chars = "\"\\{}[]:,a \u20ac";
+        final Random random = new Random(42);
+        final JsonStructuralIndex index = new JsonStructuralIndex();
+        for (int i = 0; i < 10000; i++) {
+            final StringBuilder json = new StringBuilder();
+            final int length = random.nextInt(300);
+            for (int j = 0; j < length; j++) {
+                json.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            final byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+            index.index(bytes, 0, bytes.length);
+
+            assertEquals(expectedIndex(bytes), indexString(index), json.toString());
+        }
+    }
+
+    private static int[] positions(final JsonStructuralIndex index) {
+        final int[] result = new int[index.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = index.position(i);
+        }
+        return result;
+    }
+
+    private static String indexString(final JsonStructuralIndex index) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < index.size(); i++) {
+            result.append(index.position(i)).append(index.isEscapedStringEnd(i) ? "e," : ",");
+        }
+        return result.toString();
+    }
+
+    private static String expectedIndex(final byte[] bytes) {
+        final StringBuilder result = new StringBuilder();
+        boolean string = false;
+        boolean escape = false;
+        boolean escapedString = false;
+        for (int i = 0; i < bytes.length; i++) {
+            final char c = (char) bytes[i];
+            if (escape) {
+                escape = false;
+                if (string || c == '"' || c == '\\') {
+                    continue;
+                }
+            }
+            if (c == '\\') {
+                escape = true;
+                escapedString = true;
+                continue;
+            }
+            if (string) {
+                if (c == '"') {
+                    string = false;
+                    result.append(i).append(escapedString ? "e," : ",");
+                }
+                continue;
+            }
+            if (c == '"') {
+                string = true;
+                escapedString = false;
+                result.append(i).append(',');
+            } else if ("{}[],".indexOf(c) >= 0) {
+                result.append(i).append(',');
+            }
+        }
+        return result.toString();
+    }
+}
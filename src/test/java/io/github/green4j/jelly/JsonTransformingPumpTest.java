@@ -0,0 +1,117 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.green4j.jelly;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class JsonTransformingPumpTest {
+
+    private static final String TEST_JSON = "{"
+            + "\"user\": {\"name\": \"a\\\"b\", \"password\": {\"hash\": [1, 2]}, \"url\": \"x/y\"},"
+            + "\"items\": [{\"id\": 1, \"secret\": true}, {\"id\": 2, \"secret\": [{}]}],"
+            + "\"password\": null"
+            + "}";
+
+    private static final String EXPECTED_JSON = "{"
+            + "\"user\":{\"login\":\"a\\\"b\",\"url\":\"x/y\"},"
+            + "\"items\":[{\"key\":1},{\"key\":2}],"
+            + "\"password\":null"
+            + "}";
+
+    @Test
+    public void test() {
+        final StringBuilder paths = new StringBuilder();
+        final StringBuilder result = new StringBuilder();
+        final JsonTransformingPump pump = new JsonTransformingPump(new JsonGenerator(result, false))
+                .setMemberFilter((path, name) -> {
+                    paths.append(path).append(';');
+                    return !"$.user.password".contentEquals(path) && !"secret".contentEquals(name);
+                })
+                .setMemberRenamer((path, name) -> {
+                    if ("$.user.name".contentEquals(path)) {
+                        return "login";
+                    }
+                    return "id".contentEquals(name) ? "key" : name;
+                });
+
+        final JsonParser parser = new JsonParser().setListener(pump);
+        for (final boolean skipping : new boolean[]{false, true}) {
+            pump.setParser(skipping ? parser : null);
+            for (int i = 0; i <= TEST_JSON.length(); i++) {
+                paths.setLength(0);
+                result.setLength(0);
+                parser.parse(TEST_JSON.substring(0, i));
+                parser.parse(TEST_JSON.substring(i));
+                parser.eoj();
+
+                assertFalse(parser.hasError());
+                // without the parser all the strings are escaped
+                assertEquals(skipping ? EXPECTED_JSON : EXPECTED_JSON.replace("x/y", "x\\/y"), result.toString());
+                assertEquals("$.user;$.user.name;$.user.password;$.user.url;$.items;"
+                        + "$.items[0].id;$.items[0].secret;$.items[1].id;$.items[1].secret;$.password;",
+                        paths.toString());
+            }
+        }
+    }
+
+    @Test
+    public void escapedMemberNameTest() {
+        final String json = "{\"a\\\"b\": 1, \"c/d\": {\"e\\\\f\": \"v\"}, \"id\": 2}";
+
+        final StringBuilder result = new StringBuilder();
+        final JsonTransformingPump pump = new JsonTransformingPump(new JsonGenerator(result, false))
+                .setMemberRenamer((path, name) -> "id".contentEquals(name) ? "k\"y" : name);
+
+        final JsonParser parser = new JsonParser().setListener(pump);
+        for (final boolean skipping : new boolean[]{false, true}) {
+            pump.setParser(skipping ? parser : null);
+            for (int i = 0; i <= json.length(); i++) {
+                result.setLength(0);
+                parser.parse(json.substring(0, i));
+                parser.parse(json.substring(i));
+                parser.eoj();
+
+                assertFalse(parser.hasError());
+                assertEquals("{\"a\\\"b\":1,\"" + (skipping ? "c/d" : "c\\/d")
+                        + "\":{\"e\\\\f\":\"v\"},\"k\\\"y\":2}", result.toString());
+            }
+        }
+    }
+
+    @Test
+    public void recordStreamTest() {
+        final StringBuilder result = new StringBuilder();
+        final JsonTransformingPump pump = new JsonTransformingPump(new JsonGenerator(result, false))
+                .setMemberFilter((path, name) -> !"$[1].b".contentEquals(path));
+        final JsonParser parser = new JsonParser().setListener(pump).setRecordStream(true);
+        pump.setParser(parser);
+
+        parser.parse("[{\"b\":1},{\"b\":2,\"c\":3}]\n[0,{\"b\":[4]}]\n");
+
+        assertFalse(parser.hasError());
+        assertEquals("[{\"b\":1},{\"c\":3}][0,{}]", result.toString());
+    }
+}
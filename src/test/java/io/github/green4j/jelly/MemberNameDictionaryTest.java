@@ -0,0 +1,85 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2018-2024 Anatoly Gudkov and others.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.green4j.jelly;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemberNameDictionaryTest {
+
+    @Test
+    void testRegister() {
+        final MemberNameDictionary dictionary = new MemberNameDictionary("id", "name", "price");
+        assertEquals(3, dictionary.size());
+        assertEquals(0, dictionary.id("id"));
+        assertEquals(1, dictionary.id("name"));
+        assertEquals(2, dictionary.id("price"));
+        assertEquals("name", dictionary.name(1));
+
+        assertEquals(1, dictionary.register(new StringBuilder("name")));
+        assertEquals(3, dictionary.size());
+        assertEquals(3, dictionary.register(""));
+        assertEquals(3, dictionary.id(""));
+    }
+
+    @Test
+    void testNotFound() {
+        final MemberNameDictionary dictionary = new MemberNameDictionary("id", "name");
+        assertEquals(MemberNameDictionary.NOT_FOUND, dictionary.id("i"));
+        assertEquals(MemberNameDictionary.NOT_FOUND, dictionary.id("ids"));
+        assertEquals(MemberNameDictionary.NOT_FOUND, dictionary.id("Name"));
+        assertEquals(MemberNameDictionary.NOT_FOUND, new MemberNameDictionary().id("id"));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.name(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.name(MemberNameDictionary.NOT_FOUND));
+    }
+
+    @Test
+    void testRange() {
+        final MemberNameDictionary dictionary = new MemberNameDictionary("id", "name");
+        assertEquals(1, dictionary.id("{\"name\":1}", 2, 4));
+        assertEquals(0, dictionary.id("{\"id\":1}", 2, 2));
+        assertEquals(MemberNameDictionary.NOT_FOUND, dictionary.id("{\"id\":1}", 2, 3));
+    }
+
+    @Test
+    void testGrowth() {
+        final MemberNameDictionary dictionary = new MemberNameDictionary();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, dictionary.register("member" + i));
+        }
+        // "Aa" and "BB" have the same String hash code
+        assertEquals(1000, dictionary.register("Aa"));
+        assertEquals(1001, dictionary.register("BB"));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, dictionary.id("member" + i));
+            assertEquals("member" + i, dictionary.name(i));
+        }
+        assertEquals(1000, dictionary.id("Aa"));
+        assertEquals(1001, dictionary.id("BB"));
+        assertEquals(1002, dictionary.size());
+    }
+}
@@ -25,6 +25,9 @@ package io.github.green4j.jelly;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -105,6 +108,50 @@ class Utf8ByteArrayWriterTest {
         assertEquals("World", writer.toString());
     }
 
+    @Test
+    void testAppendCharSequenceBulk() {
+        final Utf8ByteArrayWriter writer = new Utf8ByteArrayWriter(2);
+        final CharArrayCharSequence chars = new CharArrayCharSequence("Hello, W\u00f6rld!".toCharArray(), 13);
+        writer.append(chars, 5, 7);
+        assertEquals(8, writer.length());
+        assertEquals(", W\u00f6rld", writer.toString());
+
+        writer.clear();
+        writer.append(new StringBuilder("Caf\u00e9 au lait"), 1, 8);
+        assertEquals("af\u00e9 au l", writer.toString());
+
+        writer.clear();
+        writer.append("\u00e9t\u20ac", 0, 3);
+        assertEquals(6, writer.length());
+        assertEquals("\u00e9t\u20ac", writer.toString());
+    }
+
+    @Test
+    void testAppendSurrogatePairs() {
+        final Utf8ByteArrayWriter writer = new Utf8ByteArrayWriter(2);
+        final String value = "a\ud83d\ude00\u00e9\ud83d\ude01";
+        writer.append(value);
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8),
+                Arrays.copyOfRange(writer.array(), writer.start(), writer.length()));
+
+        writer.clear();
+        writer.append("\ud83d!"); // a lone surrogate
+        assertEquals(4, writer.length());
+    }
+
+    @Test
+    void testAppendEscaped() {
+        final String value = "clean \"run\"\\/\b\t\n\f\r\u0001\u00e9\u2028\u2029\ud83d\ude00 end";
+        final CharArrayWriter expected = new CharArrayWriter(2);
+        JsonGenerator.appendEscaped(expected, value, 1, value.length() - 2);
+
+        final Utf8ByteArrayWriter writer = new Utf8ByteArrayWriter(2);
+        writer.appendEscaped(value, 1, value.length() - 2);
+        assertEquals(expected.toString(), writer.toString());
+        assertEquals("lean \\\"run\\\"\\\\\\/\\b\\t\\n\\f\\r\\u0001\u00e9\\u2028\\u2029\ud83d\ude00 en",
+                writer.toString());
+    }
+
     @Test
     void testClear() {
         final Utf8ByteArrayWriter writer = new Utf8ByteArrayWriter(10);